@@ -67,6 +67,37 @@ def genNodeIDsJava(f, missingIDs, numberOfNodes, startingOffset):
     node_elems = ", ".join(str(x) for x in nodeIDs)
     f.write("\n\tpublic static final int[] nodeIDs = new int[]{ " + node_elems + " };\n")
 
+# Largest enum value that still gets a nameByValue array (the array has max+1 slots)
+MAX_DENSE_ENUM_VALUE = 255
+
+# Lookup tables for one Java enum class, so the dashboard decodes names by array index instead of reflection:
+#   nameByValue[v]   name of the entry with value v, null for gaps. Only if every value is in 0..MAX_DENSE_ENUM_VALUE
+#   nameByBit[b]     name of the entry with value 1<<b. Only if every value is a single bit (a flags enum)
+def writeJavaEnumTables(f, enum_name, values):
+    if not values:
+        return
+    names = [n for _, n in values]
+    for table in ("nameByValue", "nameByBit"):
+        if table in names:
+            raise ValueError(f"enum {enum_name} has an entry named {table}, which the generated tables use")
+
+    def java_array(slots):
+        return ", ".join(f'"{n}"' if n is not None else "null" for n in slots)
+
+    if all(0 <= v <= MAX_DENSE_ENUM_VALUE for v, _ in values):
+        slots = [None] * (max(v for v, _ in values) + 1)
+        for v, n in values:
+            if slots[v] is None:    # first entry wins on duplicate values
+                slots[v] = n
+        f.write(f'\t\tpublic static final String[] nameByValue = {{ {java_array(slots)} }};\n')
+
+    if all(v > 0 and v & (v - 1) == 0 and v.bit_length() <= 32 for v, _ in values):
+        slots = [None] * max(v.bit_length() for v, _ in values)
+        for v, n in values:
+            if slots[v.bit_length() - 1] is None:
+                slots[v.bit_length() - 1] = n
+        f.write(f'\t\tpublic static final String[] nameByBit = {{ {java_array(slots)} }};\n')
+
 #write enums to file f, in either C or Java syntax    
 def writeEnums(f, lang_l: str):
     if not globalEnums:
@@ -105,6 +136,7 @@ def writeEnums(f, lang_l: str):
                 f'\t\tprivate {g.enum_name}() {{}}\n'
             )
             # Constants
+            values = []
             for e in g.entries:
                 raw = e.value.strip()
                 try:
@@ -115,6 +147,8 @@ def writeEnums(f, lang_l: str):
                     else:
                         raise ValueError(f"Non-numeric enum value for {e.name}: {raw!r}")
                 f.write(f'\t\tpublic static final int {e.name} = {int(val)};\t// {raw}\n')
+                values.append((int(val), e.name))
+            writeJavaEnumTables(f, g.enum_name, values)
             # Close class
             f.write('\t}\n')
 
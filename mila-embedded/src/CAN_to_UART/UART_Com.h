@@ -4,6 +4,17 @@
 #include <stdint.h>
 
 uint16_t in_cksum(const uint8_t* addr, int len);
+uint32_t crc32c(const uint8_t* addr, int len);
+
+// Batched frames (dongle -> telem), negotiated by telem:
+//   [BATCH_SOF][N][~N][N x (ID32 LE + DATA64 LE)][CRC-32C LE over N, ~N and the frames]
+// Legacy single frames ([0xFF][CHK16][ID32][DATA64]) stay valid in both directions.
+#define BATCH_SOF        0xFE
+#define BATCH_MAX_FRAMES 16 // 192 bytes of buffer, keep small for AVR RAM
+#define BATCH_MAX_AGE_MS 5  // a partial batch is sent after this long, so batching adds little latency
+// Telem asks for batching with an 8 byte command: "BATCH" + max frames per batch (0 = legacy) + 2 zero bytes
+#define BATCH_MAGIC     "BATCH"
+#define BATCH_MAGIC_LEN 5
 
 // UART_receive
 bool recvFrame(uint8_t*& out);
@@ -11,5 +22,7 @@ bool recvFrame(uint8_t*& out);
 // UART_send
 int16_t CAN_TO_UART(CANPacket* packet);
 void sendUARTFlag(int nodeID, int8_t flag);
+void setUARTBatching(uint8_t maxFrames);
+void flushUARTBatch(bool force);
 
 #endif // UART_COM_H
@@ -58,6 +58,33 @@ static inline void sendU64_LE(uint64_t v) {
 #endif
 // -------------------------------------
 
+// Batch state. batchMax == 0 means legacy single frames (the default until telem asks for batching)
+static uint8_t batchMax = 0;
+static uint8_t batchBuf[3 + BATCH_MAX_FRAMES * 12]; // [N][~N] header slot + frames. SOF is sent separately
+static uint8_t batchCount = 0;
+static unsigned long batchStartMs = 0;
+
+void setUARTBatching(uint8_t maxFrames) {
+    flushUARTBatch(true); // don't strand frames queued under the old setting
+    batchMax = (maxFrames > BATCH_MAX_FRAMES) ? BATCH_MAX_FRAMES : maxFrames;
+}
+
+// Send the pending batch if it is full, old enough, or force is set
+void flushUARTBatch(bool force) {
+    if (batchCount == 0) return;
+    if (!force && batchCount < batchMax && (millis() - batchStartMs) < BATCH_MAX_AGE_MS) return;
+
+    int bodyLen = 2 + batchCount * 12;
+    batchBuf[0] = batchCount;
+    batchBuf[1] = (uint8_t) ~batchCount;
+    uint32_t crc = crc32c(batchBuf, bodyLen);
+
+    sendByte(BATCH_SOF);
+    Serial.write(batchBuf, bodyLen);
+    sendU32_LE(crc);
+    batchCount = 0;
+}
+
 int16_t CAN_TO_UART(CANPacket* packet) {
 
     // Build 12-byte payload: 4 byte ID + 8 byte DATA
@@ -66,6 +93,14 @@ int16_t CAN_TO_UART(CANPacket* packet) {
     memcpy(payload + 4, &packet->data, packet->dataSize);                               // copy data to payload
     memset(payload + 4 + packet->dataSize, 0, sizeof(packet->data) - packet->dataSize); // zero unused data bytes
 
+    if (batchMax > 0) {
+        if (batchCount == 0) batchStartMs = millis();
+        memcpy(batchBuf + 2 + batchCount * 12, payload, sizeof(payload));
+        batchCount++;
+        flushUARTBatch(false);
+        return 0;
+    }
+
     // Compute 16-bit checksum over payload bytes
     uint16_t csum = in_cksum(payload, sizeof(payload));
 
@@ -22,3 +22,14 @@ uint16_t in_cksum(const uint8_t* addr, int len) {
     sum += (sum >> 16);
     return (uint16_t) ~sum;
 }
+
+// CRC-32C (Castagnoli), reflected, as checked by java.util.zip.CRC32C on the telem side.
+// Bitwise rather than table driven: a 1KB table doesn't fit comfortably in AVR RAM.
+uint32_t crc32c(const uint8_t* addr, int len) {
+    uint32_t crc = 0xFFFFFFFF;
+    while (len-- > 0) {
+        crc ^= *addr++;
+        for (uint8_t k = 0; k < 8; k++) crc = (crc >> 1) ^ (0x82F63B78 & (0 - (crc & 1)));
+    }
+    return ~crc;
+}
@@ -18,6 +18,12 @@ PScheduler ts;
 void UART_TO_CAN() {
     uint8_t* bytes;
     if (recvFrame(bytes)) {
+        // Telem negotiating batched UART frames. Handled here, never forwarded to CAN
+        if (memcmp(bytes, BATCH_MAGIC, BATCH_MAGIC_LEN) == 0) {
+            setUARTBatching(bytes[BATCH_MAGIC_LEN]);
+            sendUARTFlag(telemetryID, telemetryCommandAck);
+            return;
+        }
         CANPacket msgForward;
         memset(&msgForward, 0, sizeof(msgForward));
 
@@ -48,4 +54,5 @@ void loop() {
     wdt_reset();
     ts.execute();
     while (waitPackets(&plpc) != NOT_RECEIVED);
+    flushUARTBatch(false); // send a partial batch once it has waited BATCH_MAX_AGE_MS
 }
@@ -0,0 +1,107 @@
+#!/usr/bin/env python3
+"""Stand-in for the CAN_to_UART dongle: opens a pseudo-terminal and writes SOF+checksum frames into it.
+
+Point the dashboard (or a benchmark) at the printed slave path, e.g.
+    python3 scripts/ptyFeeder.py --baud 115200
+    gradle bench -Pbench=IngestCpuBench --args="/dev/pts/3"
+
+--baud paces output like a real UART (10 bits per byte). --idle writes nothing, to measure an idle car.
+--batch N sends N frames per batch (0xFE header, CRC-32C trailer) like the dongle after a BATCH request.
+"""
+import argparse
+import os
+import pty
+import random
+import struct
+import sys
+import time
+import tty
+
+SOF = 0xFF
+FRAME_LEN = 15  # SOF + CHK16 + ID32 + DATA64
+BATCH_SOF = 0xFE
+
+_CRC32C_TABLE = []
+for _n in range(256):
+    _c = _n
+    for _ in range(8):
+        _c = (_c >> 1) ^ (0x82F63B78 if _c & 1 else 0)
+    _CRC32C_TABLE.append(_c)
+
+
+def in_cksum(data: bytes) -> int:
+    """Same 16-bit one's complement sum as CAN_to_UART/checksum.cpp (LE word pairing)."""
+    if len(data) % 2:
+        data += b"\x00"
+    total = sum(struct.unpack("<%dH" % (len(data) // 2), data))
+    total = (total & 0xFFFF) + (total >> 16)
+    total = (total & 0xFFFF) + (total >> 16)
+    return ~total & 0xFFFF
+
+
+def crc32c(data: bytes) -> int:
+    """Same CRC-32C (Castagnoli) as CAN_to_UART/checksum.cpp and java.util.zip.CRC32C."""
+    crc = 0xFFFFFFFF
+    for b in data:
+        crc = (crc >> 8) ^ _CRC32C_TABLE[(crc ^ b) & 0xFF]
+    return crc ^ 0xFFFFFFFF
+
+
+def make_batch(frames) -> bytes:
+    """frames: (node_id, func, frame_index, data) tuples, 1..16 of them."""
+    n = len(frames)
+    body = bytes([n, ~n & 0xFF]) + b"".join(
+        struct.pack("<IQ", node | (func << 7) | (idx << 11), data) for node, func, idx, data in frames
+    )
+    return bytes([BATCH_SOF]) + body + struct.pack("<I", crc32c(body))
+
+
+def make_frame(node_id: int, func: int, frame_index: int, data: int) -> bytes:
+    can_id = node_id | (func << 7) | (frame_index << 11)
+    payload = struct.pack("<IQ", can_id, data)
+    return bytes([SOF]) + struct.pack("<H", in_cksum(payload)) + payload
+
+
+def main() -> None:
+    ap = argparse.ArgumentParser()
+    ap.add_argument("--baud", type=int, default=115200)
+    ap.add_argument("--idle", action="store_true", help="open the pty but never write")
+    ap.add_argument("--batch", type=int, default=0, help="frames per batch, 0 for single frames")
+    args = ap.parse_args()
+
+    master, slave = pty.openpty()
+    tty.setraw(slave)
+    print(os.ttyname(slave), flush=True)
+
+    transmit_data = 7  # Constants.functionCodes.transmitData
+    bytes_per_sec = args.baud / 10.0
+    chunk = 16  # frames per write, keeps syscall count sane without bursting far ahead
+    frame_bytes = (12 + 7 / args.batch) if args.batch else FRAME_LEN
+    period = chunk * frame_bytes / bytes_per_sec
+    next_write = time.monotonic()
+    try:
+        while True:
+            if args.idle:
+                time.sleep(1)
+                continue
+            if args.batch:
+                frames = [(8, transmit_data, 0, random.getrandbits(16)) for _ in range(chunk)]
+                buf = b"".join(make_batch(frames[i:i + args.batch]) for i in range(0, chunk, args.batch))
+            else:
+                buf = b"".join(
+                    make_frame(8, transmit_data, 0, random.getrandbits(16)) for _ in range(chunk)
+                )
+            os.write(master, buf)
+            next_write += period
+            delay = next_write - time.monotonic()
+            if delay > 0:
+                time.sleep(delay)
+    except KeyboardInterrupt:
+        pass
+    finally:
+        os.close(master)
+        os.close(slave)
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,91 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+// Legacy single frames vs batched frames: what the UART can carry, and what SerialBridge parses.
+// The wire numbers are arithmetic at 10 bits per byte, the parse numbers come from replaying an in-memory capture.
+//   gradle bench -Pbench=BatchProtocolBench --args="1000000"
+public class BatchProtocolBench {
+    public static void main(String[] args) throws Exception {
+        final int frames = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        final int baud = 115200;
+
+        System.out.println("batch  bytes/frame  wire frames/s @" + baud + "  parsed frames/s  bytes/s parsed");
+        for (int n : new int[] {0, 1, 4, 8, 16, 32}) {
+            byte[] capture = capture(frames, n);
+            double perFrame = (double) capture.length / frames;
+            double parsed = 0;
+            for (int rep = 0; rep < 5; rep++) parsed = Math.max(parsed, parse(capture, frames));  // best of 5, first runs warm up
+            System.out.println(String.format("%5s  %11.2f  %20.0f  %15.0f  %14.0f",
+                    (n == 0) ? "off" : Integer.toString(n), perFrame, baud / 10.0 / perFrame, parsed, parsed * perFrame));
+        }
+    }
+
+    // Frames per second through SerialBridge, end of stream to last callback
+    private static double parse(byte[] capture, int frames) throws Exception {
+        AtomicLong seen = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(1);
+        long t0 = System.nanoTime();
+        SerialBridge sb = new SerialBridge(new StreamTransport(new ByteArrayInputStream(capture), "bench"),
+                (canId, data, rxNanos) -> { if (seen.incrementAndGet() == frames) done.countDown(); });
+        try {
+            done.await();
+        } finally {
+            sb.close();
+        }
+        return frames * 1e9 / (System.nanoTime() - t0);
+    }
+
+    // n == 0 is legacy single frames, otherwise batches of n
+    private static byte[] capture(int frames, int n) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] payload = new byte[12];
+        CRC32C crc = new CRC32C();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (int i = 0; i < frames; i++) {
+            int canId = 8 | (7 << 7) | ((i & 7) << 11);
+            putLE(payload, 0, canId, 4);
+            putLE(payload, 4, i * 0x9E3779B97F4A7C15L, 8);
+            if (n == 0) {
+                int chk = checksum(payload);
+                out.write(0xFF);
+                out.write(chk);
+                out.write(chk >>> 8);
+                out.write(payload, 0, 12);
+                continue;
+            }
+            body.write(payload, 0, 12);
+            int count = body.size() / 12;
+            if (count == n || i == frames - 1) {
+                byte[] frameBytes = body.toByteArray();
+                byte[] header = {(byte) count, (byte) ~count};
+                crc.reset();
+                crc.update(header);
+                crc.update(frameBytes);
+                byte[] trailer = new byte[4];
+                putLE(trailer, 0, crc.getValue(), 4);
+                out.write(0xFE);
+                out.write(header, 0, 2);
+                out.write(frameBytes, 0, frameBytes.length);
+                out.write(trailer, 0, 4);
+                body.reset();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void putLE(byte[] b, int off, long v, int len) {
+        for (int k = 0; k < len; k++) b[off + k] = (byte) (v >>> (8 * k));
+    }
+
+    // Same sum as CAN_to_UART/checksum.cpp
+    private static int checksum(byte[] d) {
+        int sum = 0;
+        for (int i = 0; i < d.length; i += 2) sum += (d[i] & 0xFF) | ((d[i + 1] & 0xFF) << 8);
+        sum = (sum >>> 16) + (sum & 0xFFFF);
+        sum += (sum >>> 16);
+        return ~sum & 0xFFFF;
+    }
+}
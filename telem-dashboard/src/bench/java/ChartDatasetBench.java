@@ -0,0 +1,97 @@
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+// One chart's signal at a given window size: XYSeries with setMaximumItemCount against RingXYDataset.
+//   append   steady state, the window full so every point also evicts the oldest
+//   memory   retained heap per point with the window full
+//   redraw   JFreeChart.draw into an 800x400 image (bounds, axes, the line), headless. RingXYDataset decimates
+//            windows longer than 1600 points to min/max per bucket, XYSeries draws every point
+//   gradle bench -Pbench=ChartDatasetBench --args="[window,window,...] [seconds]"
+public class ChartDatasetBench {
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        String[] windows = ((args.length > 0) ? args[0] : "100,10000,100000").split(",");
+        final int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 2;
+
+        System.out.println("window      dataset        append ns/pt  bytes/pt  redraw ms");
+        for (String w : windows) {
+            int window = Integer.parseInt(w);
+            for (int round = 0; round < 2; round++) {      // first round warms up
+                String ring = measure(window, seconds, true);
+                String old = measure(window, seconds, false);
+                if (round == 1) {
+                    System.out.println(String.format("%,9d   XYSeries     %s", window, old));
+                    System.out.println(String.format("%,9d   RingXYDataset%s", window, ring));
+                }
+            }
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static String measure(int window, int seconds, boolean ring) throws InterruptedException {
+        // memory: a few full windows held at once
+        final int copies = 4;
+        Object[] held = new Object[copies];
+        long base = Heap.usedAfterGc();
+        for (int c = 0; c < copies; c++) {
+            if (ring) {
+                RingXYDataset.Series s = new RingXYDataset.Series("s", window);
+                for (int i = 0; i < window; i++) s.add(i * 1e-3, value(i));
+                held[c] = s;
+            } else {
+                XYSeries s = new XYSeries("s", false, true);
+                s.setMaximumItemCount(window);
+                for (int i = 0; i < window; i++) s.add(i * 1e-3, value(i), false);
+                held[c] = s;
+            }
+        }
+        double bytesPerPoint = (double) (Heap.usedAfterGc() - base) / copies / window;
+
+        // append into the first one, full, for a while
+        long added = 0, i = window;
+        long t0 = System.nanoTime(), end = t0 + seconds * 1_000_000_000L, now;
+        do {
+            for (int k = 0; k < 1000; k++, i++) {
+                if (ring) ((RingXYDataset.Series) held[0]).add(i * 1e-3, value(i));
+                else ((XYSeries) held[0]).add(i * 1e-3, value(i), false);
+            }
+            added += 1000;
+        } while ((now = System.nanoTime()) < end);
+        double append = (double) (now - t0) / added;
+
+        XYDataset dataset;
+        if (ring) {
+            RingXYDataset d = new RingXYDataset((RingXYDataset.Series) held[0]);
+            d.setPixelWidth(800);       // as RenderScheduler does from the panel width
+            dataset = d;
+        } else {
+            dataset = new XYSeriesCollection((XYSeries) held[0]);
+        }
+        JFreeChart chart = ChartFactory.createXYLineChart("s", "t", "v", dataset, PlotOrientation.VERTICAL, true, false, false);
+        BufferedImage img = new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        Rectangle2D area = new Rectangle2D.Double(0, 0, 800, 400);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < 10; r++) {
+            long s = System.nanoTime();
+            chart.draw(g, area);
+            best = Math.min(best, System.nanoTime() - s);
+        }
+        g.dispose();
+        sink += img.getRGB(400, 200);
+        return String.format("  %10.1f  %8.1f  %9.2f", append, bytesPerPoint, best / 1e6);
+    }
+
+    private static double value(long i) {
+        return (i * 7919) % 255;
+    }
+}
@@ -0,0 +1,113 @@
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// transmitData decode on one core: the old per-frame lookup loop (on the HashMaps it used, and on the packed-key
+// tables) against a compiled DecodePlan.
+// Only the unpacking is timed; both sides feed the same cheap sink instead of the charts.
+//   gradle bench -Pbench=DecodeBench --args="[seconds] [telemetry.csv]"
+public class DecodeBench {
+    private static long sink;   // keeps the JIT from dropping the work
+
+    public static void main(String[] args) throws Exception {
+        final int seconds = (args.length > 0) ? Integer.parseInt(args[0]) : 3;
+        TelemetryLookup lookup;
+        if (args.length > 1) {
+            lookup = new TelemetryLookup(args[1]);
+        } else {
+            try (InputStream in = DecodeBench.class.getResourceAsStream("/telemetry.csv")) {
+                lookup = new TelemetryLookup(in);
+            }
+        }
+        DecodePlan[] plans = DecodePlan.compile(lookup);
+
+        // one frame per known (node, frame), random payloads
+        List<int[]> frames = new ArrayList<>();
+        lookup.framesById().keySet().forEach(k -> frames.add(new int[] {k.nodeId(), k.frameIndex()}));
+        int n = 4096;
+        int[] nodes = new int[n], idx = new int[n];
+        long[] data = new long[n];
+        java.util.Random r = new java.util.Random(1);
+        for (int i = 0; i < n; i++) {
+            int[] f = frames.get(i % frames.size());
+            nodes[i] = f[0];
+            idx[i] = f[1];
+            data[i] = r.nextLong();
+        }
+
+        System.out.println(lookup.framesById().size() + " frames, " + lookup.dataById().size() + " signals");
+        for (int round = 0; round < 2; round++) {      // first round warms up
+            long legacy = run(seconds, () -> { for (int i = 0; i < n; i++) legacyDecode(lookup, nodes[i], idx[i], data[i]); }, n);
+            long packed = run(seconds, () -> { for (int i = 0; i < n; i++) packedDecode(lookup, nodes[i], idx[i], data[i]); }, n);
+            long plan = run(seconds, () -> { for (int i = 0; i < n; i++) planDecode(plans, nodes[i], idx[i], data[i]); }, n);
+            if (round == 1) {
+                System.out.println(String.format("legacy loop, HashMap lookups  %,12d frames/s", legacy));
+                System.out.println(String.format("legacy loop, packed lookups   %,12d frames/s  (%.1fx)", packed, (double) packed / legacy));
+                System.out.println(String.format("DecodePlan                    %,12d frames/s  (%.1fx)", plan, (double) plan / legacy));
+            }
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static long run(int seconds, Runnable batch, int perBatch) {
+        long frames = 0;
+        long t0 = System.nanoTime();
+        long end = t0 + seconds * 1_000_000_000L;
+        long now;
+        do {
+            batch.run();
+            frames += perBatch;
+        } while ((now = System.nanoTime()) < end);
+        return (long) (frames * 1e9 / (now - t0));
+    }
+
+    // parseTransmitData's loop before DecodePlan, minus the UI calls. Lookups as the getters used to do them
+    private static void legacyDecode(TelemetryLookup lookup, int nodeId, int frameIndex, long data) {
+        var frameOpt = java.util.Optional.ofNullable(lookup.framesById().get(new TelemetryLookup.FrameKey(nodeId, frameIndex)));
+        if (frameOpt.isEmpty()) return;
+        TelemetryLookup.CANFrame frame = frameOpt.get();
+        int bitIndex = 0;
+        for (int i = 0; i < frame.numData(); i++) {
+            TelemetryLookup.DataKey dataKey = new TelemetryLookup.DataKey(nodeId, frameIndex, i);
+            var dataInfoOpt = java.util.Optional.ofNullable(lookup.dataById().get(dataKey));
+            if (dataInfoOpt.isEmpty()) return;
+            TelemetryLookup.DataInfo dataInfo = dataInfoOpt.get();
+            if (bitIndex + dataInfo.bitLength() > 64) return;
+            if (dataInfo.bitLength() < 0 || dataInfo.bitLength() > 32) return;
+            long dataMask = (1L << (long) dataInfo.bitLength()) - 1;
+            int dataValue = ((int) ((data >> bitIndex) & dataMask));
+            dataValue = dataValue + dataInfo.min();
+            sink += dataValue + dataKey.dataIndex();
+            bitIndex += dataInfo.bitLength();
+        }
+    }
+
+    // Same loop, with the getters as they are now (packed-key tables)
+    private static void packedDecode(TelemetryLookup lookup, int nodeId, int frameIndex, long data) {
+        var frameOpt = lookup.getFrame(nodeId, frameIndex);
+        if (frameOpt.isEmpty()) return;
+        TelemetryLookup.CANFrame frame = frameOpt.get();
+        int bitIndex = 0;
+        for (int i = 0; i < frame.numData(); i++) {
+            TelemetryLookup.DataKey dataKey = new TelemetryLookup.DataKey(nodeId, frameIndex, i);
+            var dataInfoOpt = lookup.getDataInfo(dataKey);
+            if (dataInfoOpt.isEmpty()) return;
+            TelemetryLookup.DataInfo dataInfo = dataInfoOpt.get();
+            if (bitIndex + dataInfo.bitLength() > 64) return;
+            if (dataInfo.bitLength() < 0 || dataInfo.bitLength() > 32) return;
+            long dataMask = (1L << (long) dataInfo.bitLength()) - 1;
+            int dataValue = ((int) ((data >> bitIndex) & dataMask));
+            dataValue = dataValue + dataInfo.min();
+            sink += dataValue + dataKey.dataIndex();
+            bitIndex += dataInfo.bitLength();
+        }
+    }
+
+    private static void planDecode(DecodePlan[] plans, int nodeId, int frameIndex, long data) {
+        DecodePlan plan = DecodePlan.find(plans, nodeId, frameIndex);
+        if (plan == null) return;
+        for (int i = 0; i < plan.count; i++) {
+            sink += plan.value(i, data) + plan.keys[i].dataIndex();
+        }
+    }
+}
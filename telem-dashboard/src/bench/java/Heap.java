@@ -0,0 +1,18 @@
+import java.lang.management.ManagementFactory;
+
+// Retained-heap figures for the benches, all measured the same way: the heap in use once a few full GCs have
+// run, so what is left is what the live objects hold. Compare two readings around building the objects.
+public final class Heap {
+
+    private static final int GC_PASSES = 4;
+
+    private Heap() {}
+
+    public static long usedAfterGc() throws InterruptedException {
+        for (int i = 0; i < GC_PASSES; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,89 @@
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+
+// HistoryStore over a long recording: <signals> signals at <hz> each for <hours> of synthetic receive time, fed
+// through a SampleBuffer and drained like the UI tick does.
+//   ingest   ns per sample for SampleBuffer.add plus HistoryStore.drain
+//   memory   retained heap per signal, its SampleBuffer ring (12 KB) included, once every tier is as full as
+//            the recording makes it
+//   query    one chart's worth (1600 points) over the last minute, hour, 6 hours and everything, and an
+//            800x400 redraw of a history chart, headless
+//   gradle bench -Pbench=HistoryBench --args="[signals] [hours] [hz]"
+public class HistoryBench {
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        int signals = (args.length > 0) ? Integer.parseInt(args[0]) : 100;
+        double hours = (args.length > 1) ? Double.parseDouble(args[1]) : 24;
+        int hz = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+
+        long base = Heap.usedAfterGc();
+        SampleBuffer samples = new SampleBuffer(signals, SampleBuffer.DEFAULT_CAPACITY);
+        for (int k = 0; k < signals; k++) samples.open(k);
+        long start = 0;
+        HistoryStore history = new HistoryStore(samples, start);
+
+        long perSignal = (long) (hours * 3600 * hz), stepNanos = 1_000_000_000L / hz;
+        int perTick = Math.max(1, hz / 30);      // what a 30 Hz UI tick sees of each signal
+        long t0 = System.nanoTime();
+        for (long i = 0; i < perSignal; i += perTick) {
+            for (int k = 0; k < signals; k++) {
+                for (long j = i; j < i + perTick && j < perSignal; j++) samples.add(k, value(k, j), start + j * stepNanos);
+            }
+            history.drain();
+        }
+        long ingest = System.nanoTime() - t0;
+        long total = perSignal * signals;
+        System.out.printf("%d signals x %.1f h at %d Hz: %,d samples%n", signals, hours, hz, total);
+        System.out.printf("ingest   %.1f ns/sample%n", (double) ingest / total);
+        System.out.printf("memory   %.1f KB/signal%n", (Heap.usedAfterGc() - base) / 1024.0 / signals);
+
+        double[] xs = new double[1602], ys = new double[1602];
+        String[] names = {"last minute", "last hour", "last 6 hours", "everything"};
+        double[] spans = {60, 3600, 6 * 3600, 0};
+        System.out.println("span           points  query us  redraw ms");
+        for (int s = 0; s < spans.length; s++) {
+            double to = history.newestSeconds(), from = (spans[s] > 0) ? to - spans[s] : 0;
+            int n = 0;
+            long q0 = System.nanoTime(), queries = 0;
+            do {
+                for (int k = 0; k < signals; k++, queries++) {
+                    n = history.query(k, from, to, 1600, HistoryStore.Aggregate.MIN_MAX, xs, ys);
+                    sink += n;
+                }
+            } while (System.nanoTime() - q0 < 1_000_000_000L);
+            double queryUs = (System.nanoTime() - q0) / 1e3 / queries;
+
+            RingXYDataset dataset = new RingXYDataset(new RingXYDataset.Series("s", 0, 10));
+            dataset.setPixelWidth(800);
+            dataset.showHistory(history, spans[s], HistoryStore.Aggregate.MIN_MAX);
+            JFreeChart chart = ChartFactory.createXYLineChart("s", "t", "v", dataset, PlotOrientation.VERTICAL, true, false, false);
+            BufferedImage img = new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = img.createGraphics();
+            Rectangle2D area = new Rectangle2D.Double(0, 0, 800, 400);
+            for (int w = 0; w < 20; w++) chart.draw(g, area);
+            int draws = 0;
+            long d0 = System.nanoTime();
+            do {
+                dataset.changed();
+                chart.draw(g, area);
+                draws++;
+            } while (System.nanoTime() - d0 < 1_000_000_000L);
+            double redrawMs = (System.nanoTime() - d0) / 1e6 / draws;
+            g.dispose();
+            System.out.printf("%-13s %7d  %8.1f  %9.2f%n", names[s], n, queryUs, redrawMs);
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    // a slow wave with a spike now and then, so min/max differ from the mean
+    private static int value(int k, long i) {
+        int v = (int) (1000 * Math.sin((i + k * 7919L) * 1e-3));
+        return (i % 997 == 0) ? v + 5000 : v;
+    }
+}
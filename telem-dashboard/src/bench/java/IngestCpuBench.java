@@ -0,0 +1,37 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+// CPU cost of each SerialBridge ingest mode against a live port.
+// Start a stand-in with scripts/ptyFeeder.py (or plug in the dongle), then:
+//   gradle bench -Pbench=IngestCpuBench --args="/dev/pts/3 10"
+public class IngestCpuBench {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("usage: IngestCpuBench <port> [secondsPerMode]");
+            return;
+        }
+        final String portName = args[0];
+        final int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        var os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        System.out.println("mode      cpu%    frames/s");
+        for (SerialTransport.IngestMode mode : SerialTransport.IngestMode.values()) {
+            AtomicLong frames = new AtomicLong();
+            SerialBridge sb = new SerialBridge(portName, 115200, mode,
+                    (canId, data, rxNanos) -> frames.incrementAndGet());
+            try {
+                Thread.sleep(500);  // let the reader settle
+                frames.set(0);
+                long cpu0 = os.getProcessCpuTime();
+                long wall0 = System.nanoTime();
+                Thread.sleep(seconds * 1000L);
+                long cpu = os.getProcessCpuTime() - cpu0;
+                long wall = System.nanoTime() - wall0;
+                System.out.println(String.format("%-9s %6.1f  %9.0f",
+                        mode, 100.0 * cpu / wall, frames.get() * 1e9 / wall));
+            } finally {
+                sb.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+// Building TelemetryLookup records from CSV rows: the old reflective createRecord (getter by name,
+// Constructor.newInstance on boxed args) against a compiled RecordFactory binder, on the same parsed rows.
+// Also times a whole TelemetryLookup load of a CSV with that many signals.
+//   gradle bench -Pbench=RecordBinderBench --args="[signals] [rounds]"
+public class RecordBinderBench {
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        final int signals = (args.length > 0) ? Integer.parseInt(args[0]) : 8000;
+        final int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        String csv = SchemaGen.csv(signals);
+
+        List<CSVRecord> records = new ArrayList<>();
+        List<String> header;
+        try (CSVParser p = CSVFormat.Builder.create(CSVFormat.DEFAULT).setHeader().setSkipHeaderRecord(true).get()
+                .parse(new StringReader(csv))) {
+            header = p.getHeaderNames();
+            p.forEach(records::add);
+        }
+        List<String[]> rows = records.stream().map(CSVRecord::values).toList();
+        var nodeB = RecordFactory.binder(TelemetryLookup.Node.class, header, List.of());
+        var frameB = RecordFactory.binder(TelemetryLookup.CANFrame.class, header, List.of("frameIndex"));
+        var dataB = RecordFactory.binder(TelemetryLookup.DataInfo.class, header, List.of("dataIndex"));
+
+        // same records either way
+        for (int i = 0; i < records.size(); i++) {
+            CSVRecord rec = records.get(i);
+            int d = Integer.parseInt(rec.get("dataIndex"));
+            if (!oldCreate(TelemetryLookup.DataInfo.class, rec::get, Map.of("dataIndex", d)).equals(dataB.create(rows.get(i), d))) {
+                throw new AssertionError("row " + i + " differs");
+            }
+        }
+
+        System.out.println(rows.size() + " rows, 3 records per row");
+        for (int round = 0; round < 2; round++) {      // first round warms up
+            long t0 = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (CSVRecord rec : records) {
+                    int f = Integer.parseInt(rec.get("frameIndex")), d = Integer.parseInt(rec.get("dataIndex"));
+                    sink += oldCreate(TelemetryLookup.Node.class, rec::get, Map.of("nodeId", 0)).hashCode();
+                    sink += oldCreate(TelemetryLookup.CANFrame.class, rec::get, Map.of("frameIndex", f)).hashCode();
+                    sink += oldCreate(TelemetryLookup.DataInfo.class, rec::get, Map.of("dataIndex", d)).hashCode();
+                }
+            }
+            long t1 = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (String[] row : rows) {
+                    int f = Integer.parseInt(row[1]), d = Integer.parseInt(row[2]);
+                    sink += nodeB.create(row).hashCode();
+                    sink += frameB.create(row, f).hashCode();
+                    sink += dataB.create(row, d).hashCode();
+                }
+            }
+            long t2 = System.nanoTime();
+            long load = Long.MAX_VALUE;
+            for (int r = 0; r < rounds; r++) {
+                long s = System.nanoTime();
+                sink += new TelemetryLookup(new java.io.ByteArrayInputStream(csv.getBytes())).signalCount();
+                load = Math.min(load, System.nanoTime() - s);
+            }
+            if (round == 1) {
+                double n = (double) rounds * rows.size();
+                System.out.println(String.format("reflective createRecord  %,8.0f ns/row", (t1 - t0) / n));
+                System.out.println(String.format("compiled binder          %,8.0f ns/row  (%.1fx)", (t2 - t1) / n,
+                        (double) (t1 - t0) / (t2 - t1)));
+                System.out.println(String.format("TelemetryLookup load     %,8.2f ms (best of %d)", load / 1e6, rounds));
+            }
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    // RecordFactory.createRecord before the binder
+    private static final Map<Class<?>, Constructor<?>> ctors = new java.util.HashMap<>();
+    private static final Map<Class<?>, RecordComponent[]> comps = new java.util.HashMap<>();
+    @SuppressWarnings("unchecked")
+    private static <T> T oldCreate(Class<T> cls, Function<String, String> getter, Map<String, Object> injected) {
+        try {
+            RecordComponent[] components = comps.computeIfAbsent(cls, Class::getRecordComponents);
+            Constructor<?> ctor = ctors.computeIfAbsent(cls, c -> {
+                try {
+                    return c.getDeclaredConstructor(Arrays.stream(c.getRecordComponents())
+                            .map(RecordComponent::getType).toArray(Class<?>[]::new));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            Object[] a = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                String name = components[i].getName();
+                if (injected.containsKey(name)) a[i] = injected.get(name);
+                else if (components[i].getType() == int.class) a[i] = Integer.parseInt(getter.apply(name));
+                else a[i] = getter.apply(name);
+            }
+            return (T) ctor.newInstance(a);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
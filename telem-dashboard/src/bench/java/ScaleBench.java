@@ -0,0 +1,137 @@
+import java.awt.GraphicsEnvironment;
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.swing.SwingUtilities;
+
+// The dashboard at full car scale (127 nodes x 8 frames x 8 signals, see SchemaGen) instead of today's few signals:
+//   1. telemetry.csv load: parse, and the SchemaSnapshot read startup uses when the CSV hasn't changed
+//   2. retained heap of one TelemetryLookup and of its DecodePlan table
+//   3. CanParser transmitData throughput, every frame of the schema with in-band values, through the real
+//      parser, MainPanel sample buffers and CSV recorder. Decode thread CPU is reported next to wall time
+//      because the recorder and UI tick share the machine.
+//   4. MainPanel and SensorSelectionPanel construction on the EDT
+// CSV files go to a temp directory (telem.data.dir). Runs headless; the panels skip drag and drop there.
+//   gradle bench -Pbench=ScaleBench --args="[nodes] [framesPerNode] [signalsPerFrame] [seconds]"
+public class ScaleBench {
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        final int nodes = (args.length > 0) ? Integer.parseInt(args[0]) : SchemaGen.FULL_NODES;
+        final int frames = (args.length > 1) ? Integer.parseInt(args[1]) : SchemaGen.FULL_FRAMES;
+        final int signals = (args.length > 2) ? Integer.parseInt(args[2]) : SchemaGen.FULL_SIGNALS;
+        final int seconds = (args.length > 3) ? Integer.parseInt(args[3]) : 3;
+        Path dir = Files.createTempDirectory("scale-bench");
+        System.setProperty("telem.data.dir", dir.resolve("data").toString());
+        byte[] csv = SchemaGen.csv(nodes, frames, signals, 1).getBytes(StandardCharsets.UTF_8);
+
+        // 1. load
+        long t0 = System.nanoTime();
+        TelemetryLookup lookup = new TelemetryLookup(new ByteArrayInputStream(csv));
+        long firstParse = System.nanoTime() - t0;
+        Path snap = dir.resolve("telemetry.schema");
+        SchemaSnapshot.write(lookup, snap, SchemaSnapshot.hash(csv));
+        long parse = Long.MAX_VALUE, read = Long.MAX_VALUE;
+        for (int r = 0; r < 20; r++) {
+            long s = System.nanoTime();
+            sink += new TelemetryLookup(new ByteArrayInputStream(csv)).signalCount();
+            parse = Math.min(parse, System.nanoTime() - s);
+            s = System.nanoTime();
+            sink += SchemaSnapshot.read(snap, SchemaSnapshot.hash(csv)).signalCount();
+            read = Math.min(read, System.nanoTime() - s);
+        }
+        System.out.println(String.format("%d nodes, %d frames, %d signals; CSV %,d bytes", lookup.nodesById().size(),
+                lookup.framesById().size(), lookup.signalCount(), csv.length));
+        System.out.println(String.format("CSV parse         first %7.2f ms, best %6.2f ms", firstParse / 1e6, parse / 1e6));
+        System.out.println(String.format("snapshot read                      best %6.2f ms", read / 1e6));
+
+        // 2. memory, averaged over a few held copies
+        final int copies = 8;
+        Object[] held = new Object[copies];
+        long base = Heap.usedAfterGc();
+        for (int i = 0; i < copies; i++) held[i] = new TelemetryLookup(new ByteArrayInputStream(csv));
+        long lookups = (Heap.usedAfterGc() - base) / copies;
+        java.util.Arrays.fill(held, null);
+        base = Heap.usedAfterGc();
+        for (int i = 0; i < copies; i++) held[i] = DecodePlan.compile(lookup);
+        long plans = (Heap.usedAfterGc() - base) / copies;
+        sink += held.length;
+        held = null;
+        System.out.println(String.format("TelemetryLookup   %,10d bytes retained (%,d per signal)", lookups, lookups / lookup.signalCount()));
+        System.out.println(String.format("DecodePlan table  %,10d bytes retained", plans));
+
+        // 4 first, since the parser needs a MainPanel
+        NotificationPanel[] notifications = new NotificationPanel[1];
+        MainPanel[] mainPanel = new MainPanel[1];
+        long[] main = {Long.MAX_VALUE, 0}, selection = {Long.MAX_VALUE, 0};     // best, first
+        for (int r = 0; r < 5; r++) {
+            SwingUtilities.invokeAndWait(() -> {
+                long s = System.nanoTime();
+                mainPanel[0] = new MainPanel(lookup, 2, 2);
+                record(main, System.nanoTime() - s);
+                s = System.nanoTime();
+                sink += new SensorSelectionPanel(lookup).getComponentCount();
+                record(selection, System.nanoTime() - s);
+                if (notifications[0] == null) notifications[0] = new NotificationPanel();
+            });
+        }
+        System.out.println(String.format("MainPanel         first %7.2f ms, best %6.2f ms", main[1] / 1e6, main[0] / 1e6));
+        System.out.println(String.format("SensorSelection   first %7.2f ms, best %6.2f ms", selection[1] / 1e6, selection[0] / 1e6));
+
+        // 3. decode, one frame per (node, frame) in the schema, values between the warning thresholds
+        CanParser parser = new CanParser(lookup, notifications[0], mainPanel[0], List.of(), 0);
+        DecodePlan[] table = DecodePlan.compile(lookup);
+        List<Integer> ids = new ArrayList<>();
+        List<Long> payloads = new ArrayList<>();
+        Random rnd = new Random(2);
+        for (DecodePlan plan : table) {
+            if (plan == null) continue;
+            for (int v = 0; v < 4; v++) {       // a few payloads per frame
+                long data = 0;
+                for (int i = 0; i < plan.count; i++) {
+                    long span = (plan.masks[i] & 0xFFFFFFFFL);
+                    long raw = span / 5 + (long) (rnd.nextDouble() * (span - 2 * (span / 5)));
+                    data |= raw << plan.shifts[i];
+                }
+                ids.add(plan.nodeId | (Constants.functionCodes.transmitData << 7) | (plan.frameIndex << 11));
+                payloads.add(data);
+            }
+        }
+        int n = ids.size();
+        int[] canIds = new int[n];
+        long[] data = new long[n];
+        for (int i = 0; i < n; i++) {
+            canIds[i] = ids.get(i);
+            data[i] = payloads.get(i);
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < 2; round++) {      // first round warms up
+            long decoded = 0;
+            long cpu0 = threads.getCurrentThreadCpuTime();
+            long start = System.nanoTime(), end = start + seconds * 1_000_000_000L, now;
+            do {
+                long rx = System.nanoTime();
+                for (int i = 0; i < n; i++) parser.parseCanMessage(canIds[i], data[i], rx);
+                decoded += n;
+            } while ((now = System.nanoTime()) < end);
+            long cpu = threads.getCurrentThreadCpuTime() - cpu0;
+            if (round == 1) {
+                System.out.println(String.format("parseTransmitData %,10.0f frames/s wall, %6.0f ns/frame decode thread CPU",
+                        decoded * 1e9 / (now - start), (double) cpu / decoded));
+            }
+        }
+        System.out.println("(sink " + sink + ")");
+        System.exit(0);     // the Swing timer behind UiTick keeps the JVM alive
+    }
+
+    private static void record(long[] bestFirst, long t) {
+        if (bestFirst[1] == 0) bestFirst[1] = t;
+        bestFirst[0] = Math.min(bestFirst[0], t);
+    }
+}
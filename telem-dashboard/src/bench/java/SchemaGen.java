@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Synthetic telemetry.csv of any size, in the same column layout as src/main/resources/telemetry.csv (duplicate
+// nodeID column included). Node ids count up from 1; every frame packs its signals into at most 64 bits.
+// Bit lengths, offsets and timeouts come from a seeded Random, so a given size and seed always makes the same file.
+// Thresholds sit inside [min, max] like the real ones: warnings at 20/80 % of the span, criticals at 5/95 %.
+//   gradle bench -Pbench=SchemaGen --args="<out.csv> [nodes] [framesPerNode] [signalsPerFrame] [seed]"
+// The full car is 127 nodes x 8 frames x 8 signals, the default.
+public final class SchemaGen {
+
+    public static final int FULL_NODES = 127, FULL_FRAMES = 8, FULL_SIGNALS = 8;
+
+    static final String HEADER = "nodeID,frameIndex,dataIndex,nodeName,dataName,nodeID,numData,dataTimeout,"
+            + "bitLength,minCritical,maxCritical,min,max,minWarning,maxWarning\n";
+
+    private SchemaGen() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("usage: SchemaGen <out.csv> [nodes] [framesPerNode] [signalsPerFrame] [seed]");
+            return;
+        }
+        int nodes = (args.length > 1) ? Integer.parseInt(args[1]) : FULL_NODES;
+        int frames = (args.length > 2) ? Integer.parseInt(args[2]) : FULL_FRAMES;
+        int signals = (args.length > 3) ? Integer.parseInt(args[3]) : FULL_SIGNALS;
+        long seed = (args.length > 4) ? Long.parseLong(args[4]) : 1;
+        Path out = Path.of(args[0]);
+        Files.writeString(out, csv(nodes, frames, signals, seed));
+        System.out.println("wrote " + out + ": " + nodes * frames * signals + " signals");
+    }
+
+    public static String csv(int nodes, int framesPerNode, int signalsPerFrame, long seed) {
+        return fill(nodes * framesPerNode * signalsPerFrame, framesPerNode, signalsPerFrame, seed);
+    }
+
+    // total signals, filling frames and then nodes in order; the last frame may be short
+    public static String csv(int total) {
+        return fill(total, FULL_FRAMES, FULL_SIGNALS, 1);
+    }
+
+    private static String fill(int total, int framesPerNode, int signalsPerFrame, long seed) {
+        if (framesPerNode < 1 || framesPerNode > 8 || signalsPerFrame < 1 || signalsPerFrame > 8) {
+            throw new IllegalArgumentException("frames and signals per frame must be 1..8");
+        }
+        int perNode = framesPerNode * signalsPerFrame;
+        if ((total + perNode - 1) / perNode > 127) {
+            throw new IllegalArgumentException(total + " signals need more than 127 nodes");
+        }
+        Random rnd = new Random(seed);
+        int maxBits = Math.min(31, 64 / signalsPerFrame);     // max must still fit an int
+        StringBuilder sb = new StringBuilder(HEADER.length() + total * 72).append(HEADER);
+        for (int first = 0; first < total; first += signalsPerFrame) {
+            int node = 1 + first / perNode, frame = (first / signalsPerFrame) % framesPerNode;
+            int numData = Math.min(signalsPerFrame, total - first);
+            int timeout = 50 * (2 + rnd.nextInt(19));       // 100..1000 ms
+            for (int data = 0; data < numData; data++) {
+                int bits = 1 + rnd.nextInt(maxBits);
+                long span = (1L << bits) - 1;
+                int min = rnd.nextBoolean() ? (int) -(span / 2) : 0;     // signed-looking half the time
+                int max = (int) (min + span);
+                sb.append(node).append(',').append(frame).append(',').append(data)
+                  .append(",node").append(node).append(",f").append(frame).append('s').append(data)
+                  .append(',').append(node).append(',').append(numData).append(',').append(timeout)
+                  .append(',').append(bits)
+                  .append(',').append(min + span / 20).append(',').append(max - span / 20)
+                  .append(',').append(min).append(',').append(max)
+                  .append(',').append(min + span / 5).append(',').append(max - span / 5).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,51 @@
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Startup schema load: parsing telemetry.csv (Commons CSV + RecordFactory binders) against reading the binary
+// SchemaSnapshot through a memory map. Both sides include hashing the CSV bytes, as SchemaSnapshot.load does.
+// The first call of each is reported separately, since that is what a launch pays.
+//   gradle bench -Pbench=SchemaLoadBench --args="[signals] [rounds]"
+public class SchemaLoadBench {
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        final int signals = (args.length > 0) ? Integer.parseInt(args[0]) : 8000;
+        final int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 30;
+        byte[] csv = SchemaGen.csv(signals).getBytes(StandardCharsets.UTF_8);
+        Path dir = Files.createTempDirectory("schema-bench");
+        Path snap = dir.resolve("telemetry.schema");
+
+        long t0 = System.nanoTime();
+        TelemetryLookup parsed = new TelemetryLookup(new ByteArrayInputStream(csv));
+        long firstParse = System.nanoTime() - t0;
+        long hash = SchemaSnapshot.hash(csv);
+        SchemaSnapshot.write(parsed, snap, hash);
+        t0 = System.nanoTime();
+        TelemetryLookup mapped = SchemaSnapshot.read(snap, SchemaSnapshot.hash(csv));
+        long firstRead = System.nanoTime() - t0;
+
+        if (mapped == null || !mapped.nodesById().equals(parsed.nodesById())
+                || !mapped.framesById().equals(parsed.framesById()) || !mapped.dataById().equals(parsed.dataById())) {
+            throw new AssertionError("snapshot does not round trip");
+        }
+
+        long parse = Long.MAX_VALUE, read = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long s = System.nanoTime();
+            sink += SchemaSnapshot.hash(csv);
+            sink += new TelemetryLookup(new ByteArrayInputStream(csv)).signalCount();
+            parse = Math.min(parse, System.nanoTime() - s);
+            s = System.nanoTime();
+            sink += SchemaSnapshot.read(snap, SchemaSnapshot.hash(csv)).signalCount();
+            read = Math.min(read, System.nanoTime() - s);
+        }
+        System.out.println(String.format("%d signals, CSV %,d bytes, snapshot %,d bytes", parsed.signalCount(), csv.length, Files.size(snap)));
+        System.out.println(String.format("CSV parse       first %7.2f ms, best %6.2f ms", firstParse / 1e6, parse / 1e6));
+        System.out.println(String.format("snapshot read   first %7.2f ms, best %6.2f ms", firstRead / 1e6, read / 1e6));
+        System.out.println("(sink " + sink + ")");
+        Files.deleteIfExists(snap);
+        Files.deleteIfExists(dir);
+    }
+}
@@ -0,0 +1,98 @@
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.ui.Layer;
+
+// One high-rate signal shown at the render rate, 800x400, headless: the JFreeChart line chart (RingXYDataset,
+// decimated, with the threshold markers) against StripChart. Each frame takes in the samples of 1/fps seconds of
+// receive time and paints the chart into an image, as a Swing repaint would.
+//   gradle bench -Pbench=StripChartBench --args="[hz,hz,...] [window seconds] [seconds]"
+public class StripChartBench {
+    private static final int FPS = 30, W = 800, H = 400;
+
+    public static void main(String[] args) throws Exception {
+        String[] rates = ((args.length > 0) ? args[0] : "100,1000,10000").split(",");
+        double window = (args.length > 1) ? Double.parseDouble(args[1]) : 8;     // about what 800 columns show
+        int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+        TelemetryLookup.DataInfo info = widest(new TelemetryLookup(new ByteArrayInputStream(SchemaGen.csv(64).getBytes(StandardCharsets.UTF_8))));
+
+        System.out.println("rate Hz   chart         frame ms");
+        for (String r : rates) {
+            int hz = Integer.parseInt(r);
+            for (int round = 0; round < 2; round++) {       // first round warms up
+                double strip = strip(info, hz, seconds);
+                double line = line(info, hz, window, seconds);
+                if (round == 1) {
+                    System.out.printf("%,7d   JFreeChart  %9.3f%n", hz, line);
+                    System.out.printf("%,7d   StripChart  %9.3f%n", hz, strip);
+                }
+            }
+        }
+    }
+
+    private static double line(TelemetryLookup.DataInfo info, int hz, double window, int seconds) {
+        RingXYDataset.Series series = new RingXYDataset.Series("s", 0, (int) (hz * window));
+        RingXYDataset dataset = new RingXYDataset(series);
+        dataset.setPixelWidth(W);
+        JFreeChart chart = ChartFactory.createXYLineChart("s", "t", "v", dataset, PlotOrientation.VERTICAL, true, false, false);
+        MainPanel.thresholdMarkers(info).forEach(m -> chart.getXYPlot().addRangeMarker(m, Layer.FOREGROUND));
+        BufferedImage img = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        Rectangle2D area = new Rectangle2D.Double(0, 0, W, H);
+        long i = 0;
+        for (; i < hz * window; i++) series.add(i / (double) hz, value(info, i));     // window full
+        int frames = 0;
+        long t0 = System.nanoTime(), end = t0 + seconds * 1_000_000_000L, now;
+        do {
+            for (long k = 0; k < hz / FPS; k++, i++) series.add(i / (double) hz, value(info, i));
+            dataset.changed();
+            chart.draw(g, area);
+            frames++;
+        } while ((now = System.nanoTime()) < end);
+        g.dispose();
+        return (now - t0) / 1e6 / frames;
+    }
+
+    private static double strip(TelemetryLookup.DataInfo info, int hz, int seconds) {
+        SampleBuffer samples = new SampleBuffer(TelemetryLookup.KEY_SPACE, SampleBuffer.DEFAULT_CAPACITY);
+        samples.open(0);
+        StripChart strip = new StripChart(samples, 0, 0, "s", info, MainPanel.thresholdMarkers(info));
+        strip.setSize(W, H);
+        BufferedImage img = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        long stepNanos = 1_000_000_000L / hz, i = 0, frameNanos = 1_000_000_000L / FPS, clock = 0;
+        int frames = 0;
+        long t0 = System.nanoTime(), end = t0 + seconds * 1_000_000_000L, now;
+        do {
+            clock += frameNanos;
+            for (; i * stepNanos < clock; i++) samples.add(0, value(info, i), i * stepNanos);
+            strip.frame(clock, true);
+            strip.paint(g);
+            frames++;
+        } while ((now = System.nanoTime()) < end);
+        g.dispose();
+        return (now - t0) / 1e6 / frames;
+    }
+
+    // the signal with the most bits, so the line covers the chart's height
+    static TelemetryLookup.DataInfo widest(TelemetryLookup lookup) {
+        TelemetryLookup.DataInfo best = null;
+        for (int i = 0; i < lookup.signalCount(); i++) {
+            TelemetryLookup.DataInfo d = lookup.dataInfo(lookup.packedKeyOf(i));
+            if (best == null || d.bitLength() > best.bitLength()) best = d;
+        }
+        return best;
+    }
+
+    // a wave over the signal's range with some noise
+    private static int value(TelemetryLookup.DataInfo info, long i) {
+        double span = info.max() - info.min();
+        return (int) (info.min() + span * (0.5 + 0.4 * Math.sin(i * 1e-3)) + span * 0.05 * ((i * 7919) % 13 - 6) / 6);
+    }
+}
@@ -0,0 +1,103 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+// What one decoded sample costs the decode thread: the old addDataPoint (XYSeries.add with a chart listening,
+// then a FileWriter opened, appended and closed) against SampleBuffer.add. Then the cost of a UI tick that
+// drains a tick's worth of samples into charted series, which is what the EDT now pays instead.
+// Headless, so no painting is timed on either side.
+//   gradle bench -Pbench=UiPipelineBench --args="[seconds] [signals] [samples per signal per tick]"
+public class UiPipelineBench {
+
+    public static void main(String[] args) throws Exception {
+        final int seconds = (args.length > 0) ? Integer.parseInt(args[0]) : 3;
+        final int signals = (args.length > 1) ? Integer.parseInt(args[1]) : 64;
+        final int perTick = (args.length > 2) ? Integer.parseInt(args[2]) : 32;
+        System.setProperty("java.awt.headless", "true");
+        File dir = Files.createTempDirectory("ui-bench").toFile();
+
+        XYSeries[] series = new XYSeries[signals];
+        for (int s = 0; s < signals; s++) {
+            series[s] = new XYSeries("s" + s);
+            series[s].setMaximumItemCount(100);
+            ChartFactory.createXYLineChart("s" + s, "t", "v", new XYSeriesCollection(series[s]),
+                    PlotOrientation.VERTICAL, true, true, false);
+        }
+        SampleBuffer samples = new SampleBuffer(signals, SampleBuffer.DEFAULT_CAPACITY);
+        SampleBuffer.Cursor cursor = samples.cursor();
+        SampleBuffer.Sink toSeries = (signal, rxNanos, value) -> series[signal].add(rxNanos / 1e9, value, false);
+
+        for (int round = 0; round < 2; round++) {      // first round warms up
+            // old path, chart update only
+            long[] t = {0};
+            double chartOnly = nanosPerOp(seconds, () -> {
+                long now = ++t[0];
+                series[(int) (now % signals)].add(now / 1e3, (int) now);
+            });
+            // old path, chart + per-sample CSV open/append/close
+            double chartCsv = nanosPerOp(seconds, () -> {
+                long now = ++t[0];
+                int s = (int) (now % signals);
+                series[s].add(now / 1e3, (int) now);
+                oldCsv(new File(dir, "s" + s + ".csv"), now / 1e3, (int) now);
+            });
+            // new decode side
+            double buffered = nanosPerOp(seconds, () -> {
+                long now = ++t[0];
+                samples.add((int) (now % signals), (int) now, now);
+            });
+            // new EDT side: fill one tick's worth, then drain it into the series
+            double tick = nanosPerOp(seconds, () -> {
+                for (int k = 0; k < perTick; k++) {
+                    for (int s = 0; s < signals; s++) samples.add(s, k, ++t[0]);
+                }
+                for (int s = 0; s < signals; s++) {
+                    if (samples.drain(cursor, s, 100, toSeries) > 0) series[s].fireSeriesChanged();
+                }
+            });
+            if (round == 1) {
+                System.out.println(signals + " signals, " + perTick + " samples per signal per tick");
+                System.out.println(String.format("decode thread, XYSeries.add            %,10.0f ns/sample", chartOnly));
+                System.out.println(String.format("decode thread, XYSeries.add + CSV open %,10.0f ns/sample", chartCsv));
+                System.out.println(String.format("decode thread, SampleBuffer.add        %,10.1f ns/sample", buffered));
+                System.out.println(String.format("UI tick, add %d + drain into series  %,10.0f ns/tick (%.1f ns/sample incl. add)",
+                        signals * perTick, tick, tick / (signals * perTick)));
+            }
+        }
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+    }
+
+    private static double nanosPerOp(int seconds, Runnable op) {
+        long ops = 0;
+        long t0 = System.nanoTime();
+        long end = t0 + seconds * 1_000_000_000L;
+        long now;
+        do {
+            for (int i = 0; i < 64; i++) op.run();
+            ops += 64;
+        } while ((now = System.nanoTime()) < end);
+        return (double) (now - t0) / ops;
+    }
+
+    // MainPanel.updateCSV as it was
+    private static void oldCsv(File f, double x, double data) {
+        try {
+            if (!f.exists()) f.createNewFile();
+            FileWriter writer = new FileWriter(f, true);
+            writer.append(String.valueOf(x));
+            writer.append(",");
+            writer.append(String.valueOf(data));
+            writer.append(",\n");
+            writer.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
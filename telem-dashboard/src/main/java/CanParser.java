@@ -1,38 +1,114 @@
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.HashMap;
-import javax.swing.SwingUtilities;
 
 //Parses Can messages and updates display. Also formats user messages to Can before sending to telem
 public class CanParser {
 
-    private final TelemetryLookup lookup;
+    // A schema and the transmitData layouts compiled from it, replaced as one by reload(). A decoder reads
+    // schema once per frame, so a frame never pairs one schema's plans with another's lookup
+    private record Schema(TelemetryLookup lookup, DecodePlan[] plans) {}
+    private volatile Schema schema;
     private final NotificationPanel notifications;
     private final MainPanel mainPanel;
-    private SerialBridge sb;
+    private SerialBridge sb;    // first link, commands go out here
+    private final List<SerialBridge> bridges = new ArrayList<>();
+    private FrameMerger merger = null;  // only when reading more than one link
+    private FrameDecoder decoder = null; // only when reading exactly one
+    private FrameRing[] rings;           // reader -> decoder queue per link, in port order
+    private ShardedDecoder shards = null; // only in parallel decode mode
+    private final FrameTrace trace = new FrameTrace();  // last frames off every link, formatted only on dump
+    private static final String DUMP_TRACE_COMMAND = "dumpTrace";
 
     public CanParser(TelemetryLookup lookup, NotificationPanel notifications, MainPanel mainPanel) {
-        this.lookup = lookup;
+        this(lookup, notifications, mainPanel, List.of(Transport.DEFAULT_SPEC));
+    }
+
+    // Each spec picks a frame source, see Transport.open (e.g. "tcp:relay:9000", "file:run.bin").
+    // Several specs read several bridges at once, merged into one stream ordered by receive time.
+    public CanParser(TelemetryLookup lookup, NotificationPanel notifications, MainPanel mainPanel, List<String> transportSpecs) {
+        this(lookup, notifications, mainPanel, transportSpecs, 0);
+    }
+
+    // decodeShards > 0 decodes on that many worker threads, frames hashed by nodeId (see ShardedDecoder).
+    // 0 decodes everything on one thread.
+    public CanParser(TelemetryLookup lookup, NotificationPanel notifications, MainPanel mainPanel, List<String> transportSpecs,
+                     int decodeShards) {
+        this.schema = new Schema(lookup, DecodePlan.compile(lookup));
         this.notifications = notifications;
         this.mainPanel=mainPanel;
-
-        System.out.println("Can init");
-        final String portName = "/dev/ttyACM0"; final int baud = 115200;
-        //read input from Microcontroller
-        try {
-            this.sb = new SerialBridge(portName, baud, this::onMessageRecv, this::logInvalidFrame);
-        } catch (IOException ex) {
-            System.out.println("Couldn’t open Microcontroller");
-            ex.printStackTrace();
+        this.dataStatus = new byte[TelemetryLookup.KEY_SPACE];
+        this.dataStatusHandlers = new NotificationPanel.Entry[TelemetryLookup.KEY_SPACE];
+        UiTick.add(this::postStatusChanges);
+
+        Log.info("can", "Can init");
+        //read input from Microcontroller(s)
+        List<Transport> transports = new ArrayList<>();
+        List<String> openedSpecs = new ArrayList<>();
+        for (String spec : transportSpecs) {
+            try {
+                transports.add(Transport.open(spec));
+                openedSpecs.add(spec);
+            } catch (IOException | IllegalArgumentException ex) {
+                Log.error("link", "Couldn’t open %s: %s", spec, ex);
+            }
+        }
+        // Readers only copy frames into a ring per link, decoding happens on the merger's or decoder's thread
+        rings = new FrameRing[transports.size()];
+        for (int port = 0; port < rings.length; port++) {
+            Map<String, String> opts = Transport.options(openedSpecs.get(port));
+            rings[port] = new FrameRing(
+                    Integer.parseInt(opts.getOrDefault("queue", Integer.toString(FrameRing.DEFAULT_CAPACITY))),
+                    OverflowPolicy.valueOf(opts.getOrDefault("overflow", "drop_newest").toUpperCase().replace('-', '_')));
+        }
+        // With shards, the merger's or decoder's thread only hashes each frame onto a worker
+        FrameSink decode = (canId, data, rxNanos) -> parseCanMessage(canId, data, rxNanos);
+        if (decodeShards > 0) {
+            shards = new ShardedDecoder(decodeShards, FrameRing.DEFAULT_CAPACITY, OverflowPolicy.DROP_NEWEST, decode);
+            decode = shards;
+        }
+        final FrameSink downstream = decode;
+        if (rings.length > 1) {
+            merger = new FrameMerger(rings, (port, canId, data, rxNanos) -> downstream.onFrame(canId, data, rxNanos));
+        } else if (rings.length == 1) {
+            decoder = new FrameDecoder(rings[0], downstream);
         }
+        for (int port = 0; port < transports.size(); port++) {
+            final int p = port;
+            final FrameSink valid = rings[port];
+            bridges.add(new SerialBridge(transports.get(port), new FrameSink() {
+                @Override public void onFrame(int canId, long data, long rxNanos) {
+                    trace.record(p, FrameTrace.VALID, canId, data, rxNanos);
+                    valid.onFrame(canId, data, rxNanos);
+                }
+                @Override public void onInvalidFrame(int canId, long data, long rxNanos) {
+                    trace.record(p, FrameTrace.INVALID, canId, data, rxNanos);
+                    logInvalidFrame(p, canId, data);
+                }
+            }));
+            // opt-in per link, older dongle firmware would forward the request onto the bus
+            String batch = Transport.options(openedSpecs.get(port)).get("batch");
+            if (batch != null) bridges.get(port).requestBatching(Integer.parseInt(batch));
+        }
+        if (!bridges.isEmpty()) this.sb = bridges.get(0);
 
         //Take user commands
         notifications.setOnCommandSubmit(cmd -> {
+            if (cmd != null && cmd.trim().equals(DUMP_TRACE_COMMAND)) {
+                dumpTrace();
+                return;
+            }
             buildPayloadFromCommand(cmd).ifPresent(payload -> {
-                try { sb.sendMessage(payload); } catch (IOException e) { /* handle */ }
+                if (sb == null) {
+                    TelemetryUpdate("No link open, command not sent", NotificationPanel.Status.WARNING);
+                    return;
+                }
+                if (!sb.sendMessage(payload)) {
+                    TelemetryUpdate("Command dropped, outbound queue full (" + sb.pendingCommands() + " pending)",
+                                    NotificationPanel.Status.WARNING);
+                }
             });
         });
 
@@ -41,6 +117,44 @@ public class CanParser {
         startCANFrameMonitor();
     }
 
+    // Open links in port order, for per-port counters
+    public List<SerialBridge> bridges() { return java.util.Collections.unmodifiableList(bridges); }
+
+    // null unless more than one link is open
+    public FrameMerger merger() { return merger; }
+
+    // null unless exactly one link is open
+    public FrameDecoder decoder() { return decoder; }
+
+    // Queue between the port's reader and whichever thread decodes its frames
+    public FrameRing decodeQueue(int port) { return rings[port]; }
+
+    // null unless decoding in parallel
+    public ShardedDecoder shards() { return shards; }
+
+    public FrameTrace trace() { return trace; }
+
+    // "dumpTrace" in the command bar: write the frame trace to data/, off the EDT
+    private void dumpTrace() {
+        Thread t = new Thread(() -> {
+            String name = "data/frame-trace-"
+                    + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                    + ".csv";
+            try {
+                java.nio.file.Files.createDirectories(java.nio.file.Path.of("data"));
+                int n;
+                try (java.io.Writer w = java.nio.file.Files.newBufferedWriter(java.nio.file.Path.of(name))) {
+                    n = trace.dump(w);
+                }
+                TelemetryUpdate("Frame trace: " + n + " frames written to " + name, NotificationPanel.Status.OK);
+            } catch (IOException e) {
+                TelemetryUpdate("Frame trace dump failed: " + e.getMessage(), NotificationPanel.Status.WARNING);
+            }
+        }, "trace-dump");
+        t.setDaemon(true);
+        t.start();
+    }
+
     //All messages will be 8 bytes of data long. (decided somewhat abritrarily).
     private Optional<byte[]> buildPayloadFromCommand(String input) {
         if (input == null) return Optional.empty();
@@ -73,36 +187,20 @@ public class CanParser {
         }
     }
 
-    private void logInvalidFrame(byte[] payload) {
-        java.nio.ByteBuffer bb = java.nio.ByteBuffer.wrap(payload).order(java.nio.ByteOrder.LITTLE_ENDIAN);
-        int id   = bb.getInt();
-        long data = bb.getLong();
+    private void logInvalidFrame(int port, int id, long data) {
         final int CanIdMask        = 0b1111111;
         final int functionCodeMask = 0b1111 << 7;
         final int extendedIdMask   = 0x3FFFF << 11;
         final int nodeId       = (id & CanIdMask);
         final int functionCode = (id & functionCodeMask) >> 7;
         final int extendedId   = (id & extendedIdMask)   >> 11;
-        System.out.println(String.format(
-            " Invalid CAN frame: id=0x%08X func=0x%08X ext=0x%08X data=0x%016X",
-            nodeId, functionCode, extendedId, data));
+        Log.warn("frame", "Invalid CAN frame on %s: id=0x%08X func=0x%08X ext=0x%08X data=0x%016X",
+            bridges.get(port).transport().describe(), nodeId, functionCode, extendedId, data);
     }
 
-    private void onMessageRecv(byte[] line) {
-        if (line == null || line.length != 12) {
-            TelemetryUpdate("onMessageRecv got invalid msg. Shouldnt happen (probably Telem code issue)!", NotificationPanel.Status.WARNING);
-            return;
-        }
-        //Assume litte-endian. Arduino is little-endian.
-        ByteBuffer bb = ByteBuffer.wrap(line).order(ByteOrder.LITTLE_ENDIAN);
-        int id   = bb.getInt();
-        long data = bb.getLong();
-
-        parseCanMessage(id, data);        
-    }
-
-
-    private void parseCanMessage(int id, long data) {
+    // rxNanos: System.nanoTime() when the frame's bytes came off the link, used as the sample time
+    // Package-private so ScaleBench can feed it frames directly
+    void parseCanMessage(int id, long data, long rxNanos) {
         final int CanIdMask = 0b1111111;
         final int functionCodeMask = 0b1111 << 7;
         final int extendedIdMask = 0x3FFFF << 11;
@@ -110,8 +208,7 @@ public class CanParser {
         final int nodeId = (id & CanIdMask);
         final int functionCode = (id & functionCodeMask) >> 7;
         final int extendedId = (id & extendedIdMask) >> 11;
-        //Debug message in serial may help for serious issues on display:
-        System.out.println(String.format("Got CAN frame id=0x%08X func=0x%08X ext=0x%08X data=0x%016X", nodeId, functionCode, extendedId, data));
+        //Every frame is in the frame trace; type dumpTrace in the command bar to see the recent ones
 
         switch (functionCode) {
         case Constants.functionCodes.CAN_Open_NMT_Function:
@@ -140,7 +237,7 @@ public class CanParser {
             break;
 
         case Constants.functionCodes.transmitData:
-            parseTransmitData(nodeId, extendedId, data);
+            parseTransmitData(nodeId, extendedId, data, rxNanos);
             break;
 
         case Constants.functionCodes.HBRespUpdate:
@@ -176,6 +273,7 @@ public class CanParser {
 
     //Expects that the flags are followed by nodeId, frameId, dataPoint ID
     private void parseWarningCode(long data) {
+        final TelemetryLookup lookup = schema.lookup();
         // Currently warning code data < 32 bits.
         final int dataInt = (int) data;
 
@@ -196,7 +294,7 @@ public class CanParser {
         final int flagsBits  = Math.max(0, Constants.warningNodeFlagIndex);
         final int flagsMask  = (flagsBits == 32) ? -1 : ((1 << flagsBits) - 1);
         final int flagsValue = dataInt & flagsMask;
-        final String flagsStr = IntConstUtils.flagsFromInt(Constants.warningFlags.class, flagsValue);
+        final String flagsStr = IntConstUtils.flagsFromInt(Constants.warningFlags.nameByBit, flagsValue);
 
         final NotificationPanel.Status status =
                 critical ? NotificationPanel.Status.CRITICAL
@@ -208,8 +306,8 @@ public class CanParser {
         final int problematicNode =
                 (dataInt >>> Constants.warningNodeFlagIndex) & nodeMask;
 
-        final String nodeName = lookup.getNodeName(problematicNode)
-                .orElse("Unrecognized nodeID: " + problematicNode);
+        final String knownName = lookup.nodeName(problematicNode);
+        final String nodeName = (knownName != null) ? knownName : "Unrecognized nodeID: " + problematicNode;
 
         // ---- Frame number ----
         final int frameBits = Math.max(0, Constants.maxFrameCntBits);
@@ -242,7 +340,7 @@ public class CanParser {
     private void parseTelemCommand(int nodeId, long data){
         final int[] criticalValues = { Constants.telemetryCommandFlags.disablePrecharge };
         final int[] warningValues = {};
-        parseEnumFlag(Constants.telemetryCommandFlags.class, nodeId, data,
+        parseEnumFlag("telemetryCommandFlags", Constants.telemetryCommandFlags.nameByValue, nodeId, data,
                     criticalValues, warningValues, NotificationPanel.Channel.TELEMETRY);
     }
 
@@ -264,6 +362,7 @@ public class CanParser {
         hbPongMonitorThread = new Thread(() -> {
             while (true) {
                 try { Thread.sleep(2000); } catch (InterruptedException ignored) {} //Check every 2s
+                final TelemetryLookup lookup = schema.lookup();
                 final int[] expectedIds = Constants.nodeIDs;
                 final int total = expectedIds.length;
 
@@ -289,7 +388,7 @@ public class CanParser {
                         ? "HB Pong Status (" + collected + "/" + total + ")"
                         : "HB Pong Status (" + collected + "/" + total + "). Missing: " + String.join(", ", missing);
 
-                SwingUtilities.invokeLater(() -> {
+                notifications.later(() -> {
                     if (HBPongNotification == null) {
                         //create new Chip if this is the first time its getting posted
                         HBPongNotification = notifications.post(
@@ -309,9 +408,19 @@ public class CanParser {
     }
 
 
+    // Switch to a reloaded schema. Decoders pick up the new plans with their next frame; nothing waits.
+    // The main panel must already have opened sample buffers for any new signals (see LiveSchema).
+    public void reload(TelemetryLookup next) {
+        DecodePlan[] plans = DecodePlan.compile(next);
+        schema = new Schema(next, plans);
+        for (DecodePlan plan : plans) {     // frames new to the schema start their countdown now
+            if (plan != null && plan.timeoutMs > 0) frameRemainingMs.compareAndSet(plan.frameSlot, 0, plan.timeoutMs);
+        }
+    }
+
     private void parseHBPong(int nodeId){
-        System.out.println("node Id Pong: " + nodeId);
-        var nodeInfoOpt = lookup.getNodeById(nodeId);
+        if (Log.enabled(Log.Level.DEBUG)) Log.debug("hb", "node Id Pong: %d", nodeId);
+        var nodeInfoOpt = schema.lookup().getNodeById(nodeId);
         if (nodeInfoOpt.isEmpty()) {
             // Unknown node ID; give warning
             TelemetryUpdate("Received HB Pong from unknown nodeId=" + nodeId, NotificationPanel.Status.WARNING);
@@ -321,64 +430,33 @@ public class CanParser {
         hbPongWindow.add(nodeId);  // mark for current 2s window
     }
 
-    private void parseTransmitData(int id, int frameIndex, long data) {
+    private void parseTransmitData(int id, int frameIndex, long data, long rxNanos) {
         //Extract nodeId and frameIndex from data
         int nodeId = (int) (id & 0b1111111); //
-        var frameOpt = lookup.getFrame(nodeId, frameIndex);
-        if (frameOpt.isEmpty()) {
+        DecodePlan plan = DecodePlan.find(schema.plans(), nodeId, frameIndex);
+        if (plan == null) {
             TelemetryUpdate("Transmit Data from unknown nodeId/frameIndex: " + nodeId + "/" + frameIndex
                 , NotificationPanel.Status.WARNING);
             return;
         }
-        TelemetryLookup.CANFrame frame = frameOpt.get();
 
         //Update Timeout Tracking
-        int timeoutMs = frame.dataTimeout();    //how long before this frame is considered missing
-        if (timeoutMs > 0) {    
-            onFrameReceivedResetTimer(nodeId, frameIndex, timeoutMs);
-        }
+        onFrameReceivedResetTimer(plan);
 
         //  Parse the message, and add data to plot. Raise warning if needed
-        int bitIndex = 0;
-        for(int i=0; i<frame.numData(); i++){
-            TelemetryLookup.DataKey dataKey= new TelemetryLookup.DataKey(nodeId, frameIndex, i);
-            var dataInfoOpt = lookup.getDataInfo(dataKey);
-            if (dataInfoOpt.isEmpty()) {
-                TelemetryUpdate("Missing DataInfo for a data indicated to exist by frame's numData value."
-                                + "This is an issue with Telemetries lookup, or some node's definition?"
-                                + " Node: " + nodeId +" Frame: " + frameIndex + " DataIndex: " + i, 
-                                NotificationPanel.Status.WARNING);
-                return;
-            }
-            TelemetryLookup.DataInfo dataInfo = dataInfoOpt.get();
-            if(bitIndex + dataInfo.bitLength() > 64){
-                TelemetryUpdate("Data overflowed 64 bits. This is an issue with Telemetries lookup"
-                                + " Node: " + nodeId +" Frame: " + frameIndex + " DataIndex: " + i, 
-                                NotificationPanel.Status.WARNING);
-                return;
-            }
-            if(dataInfo.bitLength() < 0 || dataInfo.bitLength() > 32){
-                TelemetryUpdate("DataInfo has invalid bitLength. This is an issue with Telemetries lookup"
-                                + " Node: " + nodeId +" Frame: " + frameIndex + " DataIndex: " + i
-                                + " bitLength: " + dataInfo.bitLength(), 
-                                NotificationPanel.Status.WARNING);
-                return;
-            }
-            long dataMask = (1L << (long) dataInfo.bitLength()) - 1;
-
-            int dataValue = ((int) ((data >> bitIndex) & dataMask));
-            dataValue=dataValue + dataInfo.min();   //add the min back
+        for (int i = 0; i < plan.count; i++) {
+            int dataValue = plan.value(i, data);
             //Check if the value is out of range. post warning as needed
-            checkDataValue(dataKey, dataInfo, dataValue);
+            checkDataValue(plan.packedKeys[i], plan.infos[i], dataValue);
             //Add data point to main panel
-            if(!mainPanel.addDataPoint(nodeId, frameIndex, i, (int)dataValue)){
+            if(!mainPanel.addDataPoint(plan.keys[i], dataValue, rxNanos)){
                 TelemetryUpdate("Failed to add data point to main panel. This is an issue with Telemetries lookup"
                                 + " Node: " + nodeId +" Frame: " + frameIndex + " DataIndex: " + i
                                 + " Value: " + dataValue, 
                                 NotificationPanel.Status.WARNING);
             }
-            bitIndex += dataInfo.bitLength();
         }
+        if (plan.error != null) TelemetryUpdate(plan.error, NotificationPanel.Status.WARNING);
     }
 
     // ============= CAN Frame Monitoring =====
@@ -387,9 +465,10 @@ public class CanParser {
 
 
     
-// Countdown per frame (mutable); keys come from lookup.framesById()
-private final java.util.concurrent.ConcurrentHashMap<TelemetryLookup.FrameKey, Integer> frameRemainingMs =
-        new java.util.concurrent.ConcurrentHashMap<>();
+// Countdown per frame in ms, indexed by DecodePlan.frameSlot. Decoders reset it while the monitor counts down,
+// so both sides use atomic updates and neither can undo the other's write.
+private final java.util.concurrent.atomic.AtomicIntegerArray frameRemainingMs =
+        new java.util.concurrent.atomic.AtomicIntegerArray(DecodePlan.FRAME_SLOTS);
 
 private Thread canFrameMonitorThread = null;
 
@@ -398,11 +477,9 @@ private void startCANFrameMonitor() {
     if (canFrameMonitorThread != null) return;
 
     // Seed all frames up front (only ones with a positive timeout)
-    lookup.framesById().forEach((fk, frame) -> {
-        if (frame.dataTimeout() > 0) {
-            frameRemainingMs.putIfAbsent(fk, frame.dataTimeout());
-        }
-    });
+    for (DecodePlan plan : schema.plans()) {
+        if (plan != null && plan.timeoutMs > 0) frameRemainingMs.set(plan.frameSlot, plan.timeoutMs);
+    }
 
     canFrameMonitorThread = new Thread(() -> {
         try { Thread.sleep(FRAME_MONITOR_TICK_MS); } catch (InterruptedException ignored) {}
@@ -410,41 +487,38 @@ private void startCANFrameMonitor() {
         while (!Thread.currentThread().isInterrupted()) {
             try {
                 // Iterate over ALL frames from lookup (not just those we've seen)
-                lookup.framesById().forEach((key, frame) -> {
-                    final int expected = frame.dataTimeout();
-                    if (expected <= 0) return; // not monitored
+                final Schema current = schema;            // the current plans, reloads included
+                for (DecodePlan plan : current.plans()) {
+                    if (plan == null) continue;
+                    final int expected = plan.timeoutMs;
+                    if (expected <= 0) continue; // not monitored
 
-                    int remaining = frameRemainingMs.getOrDefault(key, expected);
-                    int updated   = remaining - FRAME_MONITOR_TICK_MS;
+                    int updated = frameRemainingMs.addAndGet(plan.frameSlot, -FRAME_MONITOR_TICK_MS);
 
                     if (updated < -FRAME_MONITOR_TICK_MS) { // "< -5ms"
                         final int overdue = -updated;
-                        final String nodeStr = lookup.getNodeName(key.nodeId())
-                                                     .orElse("id=" + key.nodeId());
+                        final String nodeStr = current.lookup().getNodeName(plan.nodeId)
+                                                     .orElse("id=" + plan.nodeId);
                         final String msg = "Missing CAN frame: " + nodeStr
-                                + " (frameIndex=" + key.frameIndex() + "). "
+                                + " (frameIndex=" + plan.frameIndex + "). "
                                 + "Expected every ~" + expected + "ms; "
                                 + "overdue by " + overdue + "ms.";
 
-                        javax.swing.SwingUtilities.invokeLater(() ->
-                                TelemetryUpdate(msg, NotificationPanel.Status.WARNING)
-                        );
+                        TelemetryUpdate(msg, NotificationPanel.Status.WARNING);
 
                         // Backoff: after notifying, restart countdown to at least 100ms
+                        // (unless the frame turned up meanwhile and a decoder already reset it)
                         int resetTo = Math.max(expected, MISSING_BACKOFF_MIN_MS);
-                        frameRemainingMs.put(key, resetTo);
-                    } else {
-                        frameRemainingMs.put(key, updated);
+                        frameRemainingMs.compareAndSet(plan.frameSlot, updated, resetTo);
                     }
-                });
+                }
 
                 Thread.sleep(FRAME_MONITOR_TICK_MS);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             } catch (Throwable t) {
-                javax.swing.SwingUtilities.invokeLater(() ->
-                        TelemetryUpdate("CAN Frame monitor error: " + t.getMessage(),
-                                NotificationPanel.Status.WARNING));
+                TelemetryUpdate("CAN Frame monitor error: " + t.getMessage(),
+                        NotificationPanel.Status.WARNING);
             }
         }
     }, "can-frame-monitor");
@@ -453,21 +527,28 @@ private void startCANFrameMonitor() {
     canFrameMonitorThread.start();
 }
 
-/** Reset a frame’s timer on receipt (call from parseTransmitData after fetching frame). */
-private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs) {
-    if (timeoutMs > 0) {
-        frameRemainingMs.put(new TelemetryLookup.FrameKey(nodeId, frameIndex), timeoutMs);
+/** Reset a frame’s timer on receipt (call from parseTransmitData after fetching its plan). */
+private void onFrameReceivedResetTimer(DecodePlan plan) {
+    if (plan.timeoutMs > 0) {
+        frameRemainingMs.set(plan.frameSlot, plan.timeoutMs);
     }
 }
 
     // ====================Data Monitoring =======================//
 
-    //contains handlers for all dataPoints that have ever been out of range.
-    private final Map<TelemetryLookup.DataKey, NotificationPanel.Entry> dataStatusHandlers = new HashMap<>();
-
-    private void checkDataValue(TelemetryLookup.DataKey dataKey, TelemetryLookup.DataInfo dataInfo, int dataValue) {
-        NotificationPanel.Entry entry = dataStatusHandlers.get(dataKey);
-
+    //Last status (Status ordinal) of every dataPoint, by packed key, so it survives schema reloads. Written on the
+    //decode side only: a signal's frames always decode on one thread, and neighbouring bytes can be written by other
+    //shards safely. The UI tick reads it for the keys flagged in statusChanged.
+    private final byte[] dataStatus;
+    private static final NotificationPanel.Status[] STATUSES = NotificationPanel.Status.values();
+    //one bit per packed key whose status changed since the tick last posted it. Unlike notifications.later() this
+    //can't fill up, so no transition is lost; several between two ticks show as the newest.
+    private final java.util.concurrent.atomic.AtomicLongArray statusChanged =
+            new java.util.concurrent.atomic.AtomicLongArray(TelemetryLookup.KEY_SPACE / 64);
+    //contains handlers for all dataPoints that have ever been out of range, by packed key. EDT only.
+    private final NotificationPanel.Entry[] dataStatusHandlers;
+
+    private void checkDataValue(int key, TelemetryLookup.DataInfo dataInfo, int dataValue) {
         boolean inWarning  = dataValue < dataInfo.minWarning()  || dataValue > dataInfo.maxWarning();
         boolean inCritical = dataValue < dataInfo.minCritical() || dataValue > dataInfo.maxCritical();
 
@@ -476,20 +557,44 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
             inWarning  ? NotificationPanel.Status.WARNING  :
                         NotificationPanel.Status.OK;
 
-        NotificationPanel.Status oldStatus = (entry != null) ? entry.status : NotificationPanel.Status.OK;
         // if no change in status, do nothing
-        if (oldStatus == newStatus) return;
-
-        if (entry == null) {
-            // Not tracked before. Lets start tracking it!
-            String title = lookup.titleFor(dataKey);
-            String msg = "status of: " + title;
-            NotificationPanel.Entry newEntry =
-                notifications.post(newStatus, NotificationPanel.Channel.TELEMETRY, msg);
-            dataStatusHandlers.put(dataKey, newEntry);
-        }else{
-            //Otherwise, update the existing entry
-            entry.updateStatus(newStatus);
+        if (dataStatus[key] == newStatus.ordinal()) return;
+        dataStatus[key] = (byte) newStatus.ordinal();
+        // the status is written first, so the tick that clears this bit sees it (or a newer one, with the bit set again)
+        long bit = 1L << key;
+        int word = key >>> 6;
+        long w;
+        do {
+            w = statusChanged.get(word);
+        } while ((w & bit) == 0 && !statusChanged.compareAndSet(word, w, w | bit));
+    }
+
+    // UI tick: post the newest status of every key that changed since the last tick
+    private void postStatusChanges() {
+        TelemetryLookup lookup = schema.lookup();
+        for (int word = 0; word < statusChanged.length(); word++) {
+            if (statusChanged.get(word) == 0) continue;
+            long bits = statusChanged.getAndSet(word, 0);
+            while (bits != 0) {
+                int key = (word << 6) | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                NotificationPanel.Status status = STATUSES[dataStatus[key]];
+                NotificationPanel.Entry entry = dataStatusHandlers[key];
+                if (entry == null) {
+                    // Not tracked before. Lets start tracking it!
+                    TelemetryLookup.DataKey dataKey = lookup.dataKey(key);
+                    if (dataKey == null) {
+                        dataKey = new TelemetryLookup.DataKey(TelemetryLookup.nodeOf(key), TelemetryLookup.frameOf(key),
+                                TelemetryLookup.dataOf(key));
+                    }
+                    String msg = "status of: " + lookup.titleFor(dataKey);
+                    dataStatusHandlers[key] =
+                        notifications.post(status, NotificationPanel.Channel.TELEMETRY, msg);
+                }else{
+                    //Otherwise, update the existing entry
+                    entry.updateStatus(status);
+                }
+            }
         }
     }
 
@@ -519,6 +624,7 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
 
     //HB Status Frame, which nodes have responded to HB?
     private void parseHBStatusFrame(long data) {
+        final TelemetryLookup lookup = schema.lookup();
         // Header layout: [ type (HBupdateTypeBits) | frame# (HBStatusFrameBits) | node-bits ... ]
         final int headerBits  = Constants.HBupdateTypeBits + Constants.HBStatusFrameBits;
         final int nodeSlotsPerFrame = 64 - headerBits;
@@ -582,18 +688,22 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
             msg += " " + missing;
         }
 
-        final NotificationPanel.Entry entry = HBStatusEntries[frameNo];
-        if (entry == null) {
-            HBStatusEntries[frameNo] =
-                    notifications.post(st, NotificationPanel.Channel.VITALS, msg);
-        } else {
-            entry.updateText(notifications, msg);
-            entry.updateStatus(st);
-        }
+        final String text = msg;
+        notifications.later(() -> {
+            final NotificationPanel.Entry entry = HBStatusEntries[frameNo];
+            if (entry == null) {
+                HBStatusEntries[frameNo] =
+                        notifications.post(st, NotificationPanel.Channel.VITALS, text);
+            } else {
+                entry.updateText(notifications, text);
+                entry.updateStatus(st);
+            }
+        });
     }
 
     // HB Timing Frame. How bad are the worse HB response latencies? Whats the average HB response time?
     private void parseHBTimingFrame(long data) {
+        final TelemetryLookup lookup = schema.lookup();
         // Layout: [ type (HBupdateTypeBits) | avg (HBTimerMSBits) | (id,nodeMs) * K ... ]
         final int typeBits   = Constants.HBupdateTypeBits;
         final int avgBits    = Constants.HBTimerMSBits;
@@ -646,13 +756,15 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
 
         final String msg = "HB Timing: " + details;
 
-        if (HBTimingEntry == null) {
-            HBTimingEntry = notifications.post(NotificationPanel.Status.OK,
-                                            NotificationPanel.Channel.VITALS, msg);
-        } else {
-            HBTimingEntry.updateText(notifications, msg);
-            HBTimingEntry.updateStatus(NotificationPanel.Status.OK);
-        }
+        notifications.later(() -> {
+            if (HBTimingEntry == null) {
+                HBTimingEntry = notifications.post(NotificationPanel.Status.OK,
+                                                NotificationPanel.Channel.VITALS, msg);
+            } else {
+                HBTimingEntry.updateText(notifications, msg);
+                HBTimingEntry.updateStatus(NotificationPanel.Status.OK);
+            }
+        });
     }
 
     // ================ Parse Bus Status Updates (from Vitals) =========== //
@@ -684,7 +796,7 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
         }
 
         // Concise message of all fields
-        String msg = "bus: state=" + IntConstUtils.nameFromInt(Constants.twaiState.class, state).orElse("Unknown state value (very bad)")
+        String msg = "bus: state=" + IntConstUtils.nameFromInt(Constants.twaiState.nameByValue, state).orElse("Unknown state value (very bad)")
                 + ", txErr=" + tx_error
                 + ", rxErr=" + rx_error
                 + ", busErrΔ=" + bus_err_delta
@@ -693,12 +805,16 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
                 + ", rxMissΔ=" + rx_miss_delta
                 + ", toRx=" + msgs_to_rx;
 
-        if (BusStatusEntry == null){
-            BusStatusEntry = notifications.post(status, NotificationPanel.Channel.VITALS, msg);
-        } else {
-            BusStatusEntry.updateText(notifications, msg);
-            BusStatusEntry.updateStatus(status);
-        }
+        final NotificationPanel.Status st = status;
+        final String text = msg;
+        notifications.later(() -> {
+            if (BusStatusEntry == null){
+                BusStatusEntry = notifications.post(st, NotificationPanel.Channel.VITALS, text);
+            } else {
+                BusStatusEntry.updateText(notifications, text);
+                BusStatusEntry.updateStatus(st);
+            }
+        });
     }
 
     private void parseErrorControl(long data)    {
@@ -708,7 +824,7 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
     private void parseStatusUpdate(int nodeId, long data){
         final int[] criticalValues = { Constants.statusUpdates.prechargeOff};
         final int[] warningValues = {};
-        parseEnumFlag(Constants.statusUpdates.class, nodeId, data,
+        parseEnumFlag("statusUpdates", Constants.statusUpdates.nameByValue, nodeId, data,
                  criticalValues, warningValues, NotificationPanel.Channel.TELEMETRY);
     }
 
@@ -717,19 +833,19 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
         TelemetryUpdate("Message with unkown function code observed. function Code = " + functionCode + ". data = " + hexData, NotificationPanel.Status.WARNING);
     }
 
-    //helper to parse flags based on lookup in constants for that flag
-    private void parseEnumFlag(Class<?> constantsClass, int nodeId, long data,
+    //helper to parse flags based on lookup in constants for that flag (its generated nameByValue table)
+    private void parseEnumFlag(String enumName, String[] nameByValue, int nodeId, long data,
             int[] criticalValues, int[] warningValues, NotificationPanel.Channel channel) {
 
         // Retrieve node info:
-        String nodeName = lookup.getNodeName(nodeId)
-                .orElse("Unrecognized nodeID: (" + nodeId + ")");
+        String nodeName = schema.lookup().nodeName(nodeId);
+        if (nodeName == null) nodeName = "Unrecognized nodeID: (" + nodeId + ")";
         String nodeInfo = nodeName + " (id=" + nodeId + ")";
 
         // all enums should fit within an int. check that this code does!
         if (data < Integer.MIN_VALUE || data > Integer.MAX_VALUE) {
             String msg = "parseEnumFlag: value out of int range (" + data + ") from " + nodeInfo;
-            SwingUtilities.invokeLater(() ->
+            notifications.later(() ->
                 notifications.post(NotificationPanel.Status.WARNING, channel, msg)
             );
             return;
@@ -737,16 +853,15 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
 
         //Lookup the name of the code
         final int code = (int) data;
-        var nameOpt = IntConstUtils.nameFromInt(constantsClass, code);
-        if (nameOpt.isEmpty()) {
+        final String constName = IntConstUtils.nameOrNull(nameByValue, code);
+        if (constName == null) {
             String msg = "Unrecognized code " + code + " in "
-                    + constantsClass.getSimpleName() + " from " + nodeInfo;
-            SwingUtilities.invokeLater(() ->
+                    + enumName + " from " + nodeInfo;
+            notifications.later(() ->
                 notifications.post(NotificationPanel.Status.WARNING, channel, msg)
             );
             return;
         }
-        final String constName = nameOpt.get();
 
         //Determine the status of the messages
         final boolean isCritical = contains(criticalValues, code);
@@ -758,7 +873,7 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
 
         //Send message:
         final String msg = "Flag=" + constName + " (" + code + ") from " + nodeInfo;
-        SwingUtilities.invokeLater(() ->
+        notifications.later(() ->
             notifications.post(status, channel, msg)
         );
     }
@@ -775,15 +890,16 @@ private void onFrameReceivedResetTimer(int nodeId, int frameIndex, int timeoutMs
         return (a + b - 1) / b;
     }
 
+    // Safe from any thread: queued, and posted with the next UI tick
     void TelemetryUpdate(String msg, NotificationPanel.Status status) {
-        SwingUtilities.invokeLater(() -> {
+        notifications.later(() -> {
             notifications.post(status,
                 NotificationPanel.Channel.TELEMETRY, msg);
         });
     }
 
     void VitalsUpdate(String msg, NotificationPanel.Status status) {
-        SwingUtilities.invokeLater(() -> {
+        notifications.later(() -> {
             notifications.post(status,
                 NotificationPanel.Channel.VITALS, msg);
         });
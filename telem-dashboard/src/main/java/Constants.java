@@ -33,6 +33,7 @@ public final class Constants {
 		public static final int vitalsID = 2;	// 2
 		public static final int prechargeID = 3;	// 3
 		public static final int telemetryID = 4;	// 4
+		public static final String[] nameByValue = { null, null, "vitalsID", "prechargeID", "telemetryID" };
 	}
 
 	// global enum functionCodes
@@ -49,6 +50,7 @@ public final class Constants {
 		public static final int HBRespUpdate = 8;	// 0b1000
 		public static final int busStatusUpdate = 9;	// 0b1001
 		public static final int CAN_Open_Err_Cntrl = 14;	// 0b1110
+		public static final String[] nameByValue = { "CAN_Open_NMT_Function", "CAN_Open_Synchronization", "warningCode", "TelemetryCommand", "statusUpdate", "HBPing", "HBPong", "transmitData", "HBRespUpdate", "busStatusUpdate", null, null, null, null, "CAN_Open_Err_Cntrl" };
 	}
 
 	// global enum warningFlags
@@ -61,6 +63,7 @@ public final class Constants {
 		public static final int doubleCritical = 256;	// 0b1 << 8
 		public static final int extrapolate5 = 512;	// 0b1 << 9
 		public static final int extrap10 = 1024;	// 0b1 << 10
+		public static final String[] nameByBit = { null, null, null, null, "missingFrameFlag", "frameTimerSetFail", "dataToHigh", "dataToLow", "doubleCritical", "extrapolate5", "extrap10" };
 	}
 
 	// global enum telemetryCommandFlags
@@ -71,6 +74,7 @@ public final class Constants {
 		public static final int telemetryCommandAck = 6;	// 6
 		public static final int telemetryCommandCRCError = 7;	// 7
 		public static final int customChangeDataFlag = 9;	// 9
+		public static final String[] nameByValue = { null, null, null, null, "enablePrecharge", "disablePrecharge", "telemetryCommandAck", "telemetryCommandCRCError", null, "customChangeDataFlag" };
 	}
 
 	// global enum statusUpdates
@@ -82,6 +86,7 @@ public final class Constants {
 		public static final int prechargeOn_Charging = 5;	// 0b00000101
 		public static final int prechargeOn_FinishedCharging = 6;	// 0b00000110
 		public static final int prechargeOff = 7;	// 0b00000111
+		public static final String[] nameByValue = { "initFlag", "canRecoveryFlag", "canRXOverunFlag", null, null, "prechargeOn_Charging", "prechargeOn_FinishedCharging", "prechargeOff" };
 	}
 
 	// global enum twaiState
@@ -91,6 +96,7 @@ public final class Constants {
 		public static final int TWAI_STATE_RUNNING = 1;	// 1
 		public static final int TWAI_STATE_BUS_OFF = 2;	// 2
 		public static final int TWAI_STATE_RECOVERING = 3;	// 3
+		public static final String[] nameByValue = { "TWAI_STATE_STOPPED", "TWAI_STATE_RUNNING", "TWAI_STATE_BUS_OFF", "TWAI_STATE_RECOVERING" };
 	}
 
 	public static final int[] nodeIDs = new int[]{ 8, 10 };
@@ -0,0 +1,123 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Appends every decoded sample to data/<signal title>.csv from its own thread ("csv-writer"), one line per
+// sample: "<seconds since startup, to the microsecond>,<value>,". Files stay open behind BufferedWriters and are
+// flushed once per pass, so a sample costs a few appends instead of an open/append/close on the decode thread.
+// Files are by packed key; when a schema reload renames a signal, its next sample goes to the new file.
+public final class CsvRecorder implements SampleBuffer.Sink, AutoCloseable {
+
+    private static final long PASS_MILLIS = 50;
+    private static final File DIR = new File(System.getProperty("telem.data.dir", "data/"));
+
+    private final SampleBuffer samples;
+    private final SampleBuffer.Cursor cursor;
+    private final AtomicReferenceArray<String> fileNames;   // by key, set from the EDT
+    private final Writer[] writers;                         // by key, csv-writer thread only
+    private final String[] writerNames;                     // the name each writer was opened with
+    private final long startNanos;
+    private final StringBuilder line = new StringBuilder(48);
+    private final Thread thread;
+    private volatile boolean running = true;
+    private long reportedLost = 0;
+
+    public CsvRecorder(SampleBuffer samples, long startNanos) {
+        this.samples = samples;
+        this.cursor = samples.cursor();
+        this.fileNames = new AtomicReferenceArray<>(samples.keySpace());
+        this.writers = new Writer[samples.keySpace()];
+        this.writerNames = new String[samples.keySpace()];
+        this.startNanos = startNanos;
+        thread = new Thread(this::run, "csv-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "csv-writer-close"));
+    }
+
+    // File name (without .csv) for key's samples. Set it before the key's ring is opened
+    public void setFileName(int key, String name) {
+        fileNames.set(key, name);
+    }
+
+    private void run() {
+        while (running) {
+            pass();
+            try {
+                Thread.sleep(PASS_MILLIS);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        pass();     // whatever came in while closing
+        for (int key : samples.keys()) {
+            if (writers[key] == null) continue;
+            try { writers[key].close(); } catch (IOException ignored) {}
+            writers[key] = null;
+        }
+    }
+
+    private void pass() {
+        if (samples.drainAll(cursor, 0, this) == 0) return;
+        for (int key : samples.keys()) {
+            if (writers[key] == null) continue;
+            try {
+                writers[key].flush();
+            } catch (IOException e) {
+                fail(key, e);
+            }
+        }
+        if (cursor.lost() != reportedLost) {
+            Log.warn("csv", "CSV writer fell behind, %d samples not written", cursor.lost() - reportedLost);
+            reportedLost = cursor.lost();
+        }
+    }
+
+    @Override
+    public void onSample(int key, long rxNanos, int value) {
+        try {
+            Writer w = writers[key];
+            String name = fileNames.get(key);
+            if (w != null && !name.equals(writerNames[key])) {     // renamed by a schema reload
+                w.close();
+                w = writers[key] = null;
+            }
+            if (w == null) {
+                if (!DIR.exists()) DIR.mkdir();
+                w = writers[key] = new BufferedWriter(new FileWriter(new File(DIR, name + ".csv"), true));
+                writerNames[key] = name;
+            }
+            long micros = Math.floorDiv(rxNanos - startNanos, 1000L);
+            int frac = (int) Math.floorMod(micros, 1_000_000L);
+            line.setLength(0);
+            line.append(Math.floorDiv(micros, 1_000_000L)).append('.');
+            for (int d = 100_000; d > 1 && frac < d; d /= 10) line.append('0');   // zero padded
+            line.append(frac).append(',').append((double) value).append(",\n");
+            w.append(line);
+        } catch (IOException e) {
+            fail(key, e);
+        }
+    }
+
+    // drop the writer; the next sample for this signal reopens the file
+    private void fail(int key, IOException e) {
+        Log.warn("csv", "Writing %s.csv failed: %s", fileNames.get(key), e.getMessage());
+        try { if (writers[key] != null) writers[key].close(); } catch (IOException ignored) {}
+        writers[key] = null;
+    }
+
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,8 +2,6 @@ import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.plot.ValueAxisPlot;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 import javax.swing.*;
 
@@ -13,11 +11,52 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 
 public class CustomChartPanel extends ChartPanel {
 
-    public CustomChartPanel(JFreeChart chart) {
-        super(chart);
+    // History menu: label and span in seconds; 0 is since startup, -1 back to the live window
+    private static final String[] SPAN_LABELS = {"Live", "Last minute", "Last 10 minutes", "Last hour", "Last 6 hours", "Since start"};
+    private static final double[] SPANS = {-1, 60, 600, 3600, 6 * 3600, 0};
+
+    private final HistoryStore history;
+    private Runnable stripChartAction;      // swaps this panel for a strip chart of its signal
+    private boolean followingAxis = false;  // domain axis changes re-query the history
+
+    public CustomChartPanel(JFreeChart chart, HistoryStore history) {
+        super(chart);        // builds the popup menu, whose actions read history later
+        this.history = history;
+    }
+
+    public void setStripChartAction(Runnable action) {
+        stripChartAction = action;
+    }
+
+    // The dataset was replaced by a live one: back to the live window's fixed, auto-ranged x axis
+    public void showingLive() {
+        setDomainZoomable(false);
+        restoreAutoDomainBounds();
+    }
+
+    // Zoomed in history, the store is asked again for the visible x range, at the tier that fits it
+    private void followAxis() {
+        if (followingAxis) return;
+        followingAxis = true;
+        ValueAxis axis = getChart().getXYPlot().getDomainAxis();
+        axis.addChangeListener(e -> {
+            RingXYDataset d = dataset();
+            if (!d.isHistory()) return;
+            if (axis.isAutoRange()) {
+                d.setHistoryRange(Double.NaN, Double.NaN);
+            } else {
+                d.setHistoryRange(axis.getLowerBound(), axis.getUpperBound());
+            }
+        });
+    }
+
+    private RingXYDataset dataset() {
+        return (RingXYDataset) getChart().getXYPlot().getDataset();
     }
 
     @Override
@@ -29,11 +68,8 @@ public class CustomChartPanel extends ChartPanel {
             @Override
             public void actionPerformed(ActionEvent actionEvent) {
 
-                JSlider slider = new JSlider(JSlider.HORIZONTAL, 0, 100, 10);
-                slider.setMajorTickSpacing(10);
-                slider.setMinorTickSpacing(1);
-                slider.setPaintTicks(true);
-                slider.setPaintLabels(true);
+                RingXYDataset current = (RingXYDataset) getChart().getXYPlot().getDataset();
+                WindowSlider slider = new WindowSlider(current.getSeries(0).getCapacity());
                 slider.setPreferredSize(new Dimension(300, 50));
                 JDialog dialog = new JDialog();
                 dialog.setTitle("Sensor Range");
@@ -48,9 +84,10 @@ public class CustomChartPanel extends ChartPanel {
                     @Override
                     public void stateChanged(ChangeEvent changeEvent) {
                         // update chart based on slider value
-                        JSlider source = (JSlider)changeEvent.getSource();
-                        XYSeries series = ((XYSeriesCollection) getChart().getXYPlot().getDataset()).getSeries(0);
-                        series.setMaximumItemCount(source.getValue());
+                        WindowSlider source = (WindowSlider)changeEvent.getSource();
+                        RingXYDataset dataset = (RingXYDataset) getChart().getXYPlot().getDataset();
+                        dataset.getSeries(0).setCapacity(source.getPoints());
+                        dataset.changed();
                     }
                 });
 
@@ -61,7 +98,71 @@ public class CustomChartPanel extends ChartPanel {
         });
 
         menu.add(sliderMenuItem);
+        menu.add(historyMenu(menu));
 
+        // lighter than JFreeChart for high-rate signals; one signal per strip chart
+        JMenuItem strip = new JMenuItem("Strip chart");
+        strip.addActionListener(e -> stripChartAction.run());
+        menu.add(strip);
+        menu.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                strip.setEnabled(stripChartAction != null && dataset().getSeriesCount() == 1);
+            }
+            @Override public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {}
+            @Override public void popupMenuCanceled(PopupMenuEvent e) {}
+        });
+
+        return menu;
+    }
+
+    // Zoom out past the live window: the chart shows its signals over a time span from the history store
+    private JMenu historyMenu(JPopupMenu popup) {
+        JMenu menu = new JMenu("History");
+        ButtonGroup group = new ButtonGroup();
+        JRadioButtonMenuItem[] items = new JRadioButtonMenuItem[SPANS.length];
+        JCheckBoxMenuItem mean = new JCheckBoxMenuItem("Show mean instead of min/max");
+        for (int i = 0; i < SPANS.length; i++) {
+            double span = SPANS[i];
+            items[i] = new JRadioButtonMenuItem(SPAN_LABELS[i]);
+            items[i].addActionListener(e -> {
+                if (span < 0) {
+                    dataset().showLive();
+                    showingLive();
+                } else {
+                    dataset().showHistory(history, span, mean.isSelected() ? HistoryStore.Aggregate.MEAN : HistoryStore.Aggregate.MIN_MAX);
+                    followAxis();
+                    restoreAutoDomainBounds();
+                    setDomainZoomable(true);
+                }
+            });
+            group.add(items[i]);
+            menu.add(items[i]);
+        }
+        menu.addSeparator();
+        mean.addActionListener(e -> {
+            RingXYDataset d = dataset();
+            if (d.isHistory()) {
+                d.showHistory(history, d.getHistorySeconds(), mean.isSelected() ? HistoryStore.Aggregate.MEAN : HistoryStore.Aggregate.MIN_MAX);
+            }
+        });
+        menu.add(mean);
+
+        // a drop may have replaced the dataset since, so show the current one's mode each time the menu opens
+        popup.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                RingXYDataset d = dataset();
+                int selected = 0;
+                for (int i = 1; i < SPANS.length && d.isHistory(); i++) {
+                    if (SPANS[i] == d.getHistorySeconds()) selected = i;
+                }
+                items[selected].setSelected(true);
+                if (d.isHistory()) mean.setSelected(d.getAggregate() == HistoryStore.Aggregate.MEAN);
+            }
+            @Override public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {}
+            @Override public void popupMenuCanceled(PopupMenuEvent e) {}
+        });
         return menu;
     }
-}
\ No newline at end of file
+}
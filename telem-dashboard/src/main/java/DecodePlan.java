@@ -0,0 +1,105 @@
+import java.util.Map;
+
+// How to unpack one (nodeId, frameIndex) transmitData frame, worked out once from TelemetryLookup at startup.
+// Signals are packed LSB first in dataIndex order: value = ((data >>> shift) & mask) + min.
+// Everything the hot path needs is in flat arrays, so decoding a frame allocates nothing and looks nothing up.
+public final class DecodePlan {
+
+    private static final int FRAME_INDEX_BITS = TelemetryLookup.FRAME_BITS;
+    private static final int NODE_ID_MASK = (1 << Constants.nodeIDSizeBits) - 1;
+
+    public final int nodeId;
+    public final int frameIndex;
+    public final int timeoutMs;                      // frame's dataTimeout, <= 0 if not monitored
+    public final int count;                          // signals to decode. Fewer than numData if the lookup is broken
+    public final int[] shifts;
+    public final int[] masks;                        // bitLength <= 32, so (int) (data >>> shift) & mask
+    public final int[] minOffsets;
+    public final int[] packedKeys;                   // TelemetryLookup.pack(nodeId, frameIndex, dataIndex), each
+                                                     // signal's slot in the sample buffers and alarm state
+    public final TelemetryLookup.DataKey[] keys;     // prebuilt, for the map keyed UI and alarm code
+    public final TelemetryLookup.DataInfo[] infos;
+    public final int frameSlot;                      // index(nodeId, frameIndex), below FRAME_SLOTS
+    public final String error;                       // why count < numData, reported after decoding, or null
+
+    private DecodePlan(int nodeId, TelemetryLookup.CANFrame frame, TelemetryLookup lookup) {
+        this.nodeId = nodeId;
+        this.frameIndex = frame.frameIndex();
+        this.timeoutMs = frame.dataTimeout();
+        this.frameSlot = index(nodeId, frameIndex);
+
+        int n = Math.max(0, frame.numData());
+        int[] sh = new int[n], mk = new int[n], mn = new int[n], pk = new int[n];
+        TelemetryLookup.DataKey[] ks = new TelemetryLookup.DataKey[n];
+        TelemetryLookup.DataInfo[] inf = new TelemetryLookup.DataInfo[n];
+        String err = null;
+        int bitIndex = 0;
+        int i = 0;
+        // Same checks parseTransmitData used to make on every frame, now made once
+        for (; i < n; i++) {
+            int packed = TelemetryLookup.pack(nodeId, frameIndex, i);
+            TelemetryLookup.DataInfo info = TelemetryLookup.inRange(nodeId, frameIndex, i) ? lookup.dataInfo(packed) : null;
+            if (info == null) {
+                err = "Missing DataInfo for a data indicated to exist by frame's numData value."
+                        + "This is an issue with Telemetries lookup, or some node's definition?"
+                        + " Node: " + nodeId + " Frame: " + frameIndex + " DataIndex: " + i;
+                break;
+            }
+            if (bitIndex + info.bitLength() > 64) {
+                err = "Data overflowed 64 bits. This is an issue with Telemetries lookup"
+                        + " Node: " + nodeId + " Frame: " + frameIndex + " DataIndex: " + i;
+                break;
+            }
+            if (info.bitLength() < 0 || info.bitLength() > 32) {
+                err = "DataInfo has invalid bitLength. This is an issue with Telemetries lookup"
+                        + " Node: " + nodeId + " Frame: " + frameIndex + " DataIndex: " + i
+                        + " bitLength: " + info.bitLength();
+                break;
+            }
+            sh[i] = bitIndex;
+            mk[i] = (int) ((1L << info.bitLength()) - 1);
+            mn[i] = info.min();
+            pk[i] = packed;
+            ks[i] = lookup.dataKey(packed);
+            inf[i] = info;
+            bitIndex += info.bitLength();
+        }
+        this.count = i;
+        this.shifts = sh;
+        this.masks = mk;
+        this.minOffsets = mn;
+        this.packedKeys = pk;
+        this.keys = ks;
+        this.infos = inf;
+        this.error = err;
+    }
+
+    // Value of signal i in data
+    public int value(int i, long data) {
+        return ((int) (data >>> shifts[i]) & masks[i]) + minOffsets[i];
+    }
+
+    /* ===== plan table ===== */
+    public static final int FRAME_SLOTS = (NODE_ID_MASK + 1) << FRAME_INDEX_BITS;
+
+    // All plans, indexed by frameSlot. Empty slots are null.
+    public static DecodePlan[] compile(TelemetryLookup lookup) {
+        DecodePlan[] plans = new DecodePlan[FRAME_SLOTS];
+        for (Map.Entry<TelemetryLookup.FrameKey, TelemetryLookup.CANFrame> e : lookup.framesById().entrySet()) {
+            int idx = index(e.getKey().nodeId(), e.getKey().frameIndex());
+            if (idx >= 0) plans[idx] = new DecodePlan(e.getKey().nodeId(), e.getValue(), lookup);
+        }
+        return plans;
+    }
+
+    // Plan for a received frame, or null if the lookup doesn't define it
+    public static DecodePlan find(DecodePlan[] plans, int nodeId, int frameIndex) {
+        int idx = index(nodeId, frameIndex);
+        return (idx >= 0) ? plans[idx] : null;
+    }
+
+    private static int index(int nodeId, int frameIndex) {
+        if ((nodeId & ~NODE_ID_MASK) != 0 || (frameIndex >>> FRAME_INDEX_BITS) != 0) return -1;
+        return (nodeId << FRAME_INDEX_BITS) | frameIndex;
+    }
+}
@@ -0,0 +1,41 @@
+// Decode thread for one bridge. The bridge's reader only copies frames into a FrameRing, and this thread hands
+// them on to the (slow) decode sink, so a long decode or a busy chart never holds up draining the UART.
+public final class FrameDecoder implements AutoCloseable {
+
+    private static final int DRAIN_BATCH = 256;              // frames per pass before re-checking running
+    private static final long IDLE_PARK_NANOS = 50_000_000;  // upper bound on a park, offer() wakes us sooner
+
+    private final FrameRing ring;
+    private final FrameSink out;
+    private final Thread decodeThread;
+    private volatile boolean running = true;
+
+    public FrameDecoder(FrameSink out) {
+        this(new FrameRing(), out);
+    }
+
+    public FrameDecoder(FrameRing ring, FrameSink out) {
+        this.ring = ring;
+        this.out = out;
+        decodeThread = new Thread(this::decodeLoop, "frame-decoder");
+        decodeThread.setDaemon(true);
+        decodeThread.start();
+    }
+
+    // Sink for the bridge's reader thread
+    public FrameSink input() { return ring; }
+
+    public FrameRing ring() { return ring; }
+
+    private void decodeLoop() {
+        while (running) {
+            if (ring.drainTo(out, DRAIN_BATCH) == 0) ring.await(IDLE_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        java.util.concurrent.locks.LockSupport.unpark(decodeThread);
+    }
+}
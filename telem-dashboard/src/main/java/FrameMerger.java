@@ -0,0 +1,110 @@
+import java.util.concurrent.locks.LockSupport;
+
+// Merges frames from several bridges into one stream ordered by receive time, tagged with the port they
+// came from. Each bridge's reader thread only enqueues into its port's FrameRing; one merge thread decodes
+// everything, in order.
+//
+// Ordering: frames within a port are already in time order, so the merge thread only compares the heads of
+// each port's queue. The oldest head is released once every other port also has a head (nothing older can
+// still arrive), or once it is REORDER_WINDOW_NANOS old (a quiet port can't hold everyone up).
+public final class FrameMerger implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface TaggedFrameSink {
+        void onFrame(int port, int canId, long data, long rxNanos);
+    }
+
+    public static final long REORDER_WINDOW_NANOS = 5_000_000;   // 5 ms of extra latency at most
+    public static final int DEFAULT_PORT_QUEUE = FrameRing.DEFAULT_CAPACITY;
+
+    private final FrameRing[] queues;
+    private final TaggedFrameSink out;
+    private final Thread mergeThread;
+    private volatile boolean running = true;
+    private final long[] taken;          // per port, merge thread only writes. Read for stats, so may lag
+    private int emitPort;                // port of the frame being emitted, merge thread only
+    private final FrameSink emit;
+
+    public FrameMerger(int ports, TaggedFrameSink out) {
+        this(ports, DEFAULT_PORT_QUEUE, OverflowPolicy.DROP_NEWEST, out);
+    }
+
+    public FrameMerger(int ports, int queueCapacity, OverflowPolicy policy, TaggedFrameSink out) {
+        this(rings(ports, queueCapacity, policy), out);
+    }
+
+    // One ring per port, each fed by that port's bridge reader
+    public FrameMerger(FrameRing[] inputs, TaggedFrameSink out) {
+        this.out = out;
+        this.queues = inputs.clone();
+        this.taken = new long[inputs.length];
+        this.emit = (canId, data, rxNanos) -> this.out.onFrame(emitPort, canId, data, rxNanos);
+        mergeThread = new Thread(this::mergeLoop, "frame-merger");
+        mergeThread.setDaemon(true);
+        mergeThread.start();
+    }
+
+    private static FrameRing[] rings(int ports, int capacity, OverflowPolicy policy) {
+        FrameRing[] r = new FrameRing[ports];
+        for (int i = 0; i < ports; i++) r[i] = new FrameRing(capacity, policy);
+        return r;
+    }
+
+    public int ports() { return queues.length; }
+
+    // Sink for one bridge's reader thread. Offers wake the merge thread while it waits.
+    public FrameSink input(int port) { return queues[port]; }
+
+    public FrameRing ring(int port) { return queues[port]; }
+
+    /* ===== per-port counters ===== */
+    public long mergedFrames(int port)  { return taken[port]; }
+    public long droppedFrames(int port) { return queues[port].overflows(); }
+    public int queuedFrames(int port)   { return queues[port].size(); }
+
+    private void mergeLoop() {
+        while (running) {
+            long seen = offeredTotal();
+            int best = -1;
+            long bestNanos = Long.MAX_VALUE;
+            boolean allHaveHead = true;
+            for (int p = 0; p < queues.length; p++) {
+                long t = queues[p].headNanos();
+                if (t == Long.MAX_VALUE) { allHaveHead = false; continue; }
+                if (t < bestNanos) { bestNanos = t; best = p; }   // ties go to the lower port
+            }
+            if (best < 0) {
+                park(REORDER_WINDOW_NANOS, seen);   // nothing queued anywhere
+                continue;
+            }
+            long age = System.nanoTime() - bestNanos;
+            if (!allHaveHead && age < REORDER_WINDOW_NANOS) {
+                park(REORDER_WINDOW_NANOS - age, seen); // another port may still deliver something older
+                continue;
+            }
+            emitPort = best;
+            if (queues[best].poll(emit)) taken[best]++;   // decodes on this thread, readers never wait on it
+        }
+    }
+
+    // Wait for any port to offer a frame, or nanos. seen is offeredTotal() from before the scan, so a frame
+    // that arrived after the scan but before the waiters were set still cuts the wait short.
+    private void park(long nanos, long seen) {
+        Thread me = Thread.currentThread();
+        for (FrameRing q : queues) q.setWaiter(me);
+        if (offeredTotal() == seen) LockSupport.parkNanos(this, nanos);
+        for (FrameRing q : queues) q.setWaiter(null);
+    }
+
+    private long offeredTotal() {
+        long n = 0;
+        for (FrameRing q : queues) n += q.offered();
+        return n;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(mergeThread);
+    }
+}
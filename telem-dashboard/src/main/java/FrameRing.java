@@ -0,0 +1,157 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+// Bounded single-producer/single-consumer queue of primitive frame records, between a bridge's reader thread
+// (offer, via onFrame) and whichever thread decodes (drainTo / poll). No locks and no allocation per frame.
+//
+// head and tail are running sequence numbers, slot = seq & mask. The producer publishes a frame with a volatile
+// store of tail, the consumer frees slots with a release store (or CAS) of head. DROP_OLDEST is the one case
+// where the producer moves head too, so then the consumer copies a slot out and claims it with a CAS, and
+// throws the copy away if the producer got there first.
+public final class FrameRing implements FrameSink {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final long BLOCK_PARK_NANOS = 100_000;    // producer re-check interval while BLOCKed on a full ring
+
+    private static final VarHandle HEAD, TAIL;
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            HEAD = l.findVarHandle(FrameRing.class, "head", long.class);
+            TAIL = l.findVarHandle(FrameRing.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int[] ids;
+    private final long[] data;
+    private final long[] nanos;
+    private final int mask;
+    private final OverflowPolicy policy;
+
+    private volatile long head = 0;     // next seq to consume
+    private volatile long tail = 0;     // next seq to publish
+    private long headCache = 0;         // producer's last look at head
+    private long tailCache = 0;         // consumer's last look at tail
+    private volatile Thread waiter;     // consumer parked in await(), if any
+
+    // producer-only writes, read from anywhere
+    private volatile long offered = 0, overflows = 0;
+    private volatile int highWater = 0;
+
+    public FrameRing() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP_NEWEST);
+    }
+
+    public FrameRing(int capacity, OverflowPolicy policy) {
+        int cap = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(capacity, 2) - 1));
+        ids = new int[cap];
+        data = new long[cap];
+        nanos = new long[cap];
+        mask = cap - 1;
+        this.policy = policy;
+    }
+
+    /* ===== producer side ===== */
+    @Override
+    public void onFrame(int canId, long d, long rxNanos) {
+        offer(canId, d, rxNanos);
+    }
+
+    // False if the frame was refused (DROP_NEWEST on a full ring). DROP_OLDEST always accepts, BLOCK waits.
+    public boolean offer(int canId, long d, long rxNanos) {
+        long t = tail;
+        if (t - headCache > mask) {
+            headCache = (long) HEAD.getAcquire(this);
+            while (t - headCache > mask) {
+                switch (policy) {
+                    case DROP_NEWEST -> {
+                        overflows++;
+                        return false;
+                    }
+                    case DROP_OLDEST -> {
+                        if (HEAD.compareAndSet(this, headCache, headCache + 1)) overflows++;
+                        // else the consumer just freed a slot, either way there's room now
+                    }
+                    case BLOCK -> LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                }
+                headCache = (long) HEAD.getAcquire(this);
+            }
+        }
+        int i = (int) t & mask;
+        ids[i] = canId;
+        data[i] = d;
+        nanos[i] = rxNanos;
+        tail = t + 1;   // full volatile store, so the waiter check below can't be reordered ahead of it
+        offered++;
+        int occupancy = (int) (t + 1 - headCache);
+        if (occupancy > highWater) highWater = occupancy;   // headCache is stale-low, so this may overstate a little
+
+        Thread w = waiter;
+        if (w != null) LockSupport.unpark(w);
+        return true;
+    }
+
+    /* ===== consumer side ===== */
+    // Hands up to max frames to out, in order. Returns how many.
+    public int drainTo(FrameSink out, int max) {
+        int n = 0;
+        while (n < max && poll(out)) n++;
+        return n;
+    }
+
+    // Hands the oldest frame to out. False if the ring is empty.
+    public boolean poll(FrameSink out) {
+        while (true) {
+            long h = (long) HEAD.getAcquire(this);
+            if (h >= tailCache) {
+                tailCache = (long) TAIL.getAcquire(this);
+                if (h >= tailCache) return false;
+            }
+            int i = (int) h & mask;
+            int canId = ids[i];
+            long d = data[i];
+            long t = nanos[i];
+            if (policy == OverflowPolicy.DROP_OLDEST) {
+                if (!HEAD.compareAndSet(this, h, h + 1)) continue;     // overwritten under us, take the next one
+            } else {
+                HEAD.setRelease(this, h + 1);
+            }
+            out.onFrame(canId, d, t);
+            return true;
+        }
+    }
+
+    // Receive time of the oldest frame, or Long.MAX_VALUE if empty. Under DROP_OLDEST the frame poll()
+    // returns next can be newer than this, if the producer evicted it in between.
+    public long headNanos() {
+        while (true) {
+            long h = (long) HEAD.getAcquire(this);
+            if (h >= (long) TAIL.getAcquire(this)) return Long.MAX_VALUE;
+            long t = nanos[(int) h & mask];
+            if ((long) HEAD.getAcquire(this) == h) return t;   // not evicted while we read it
+        }
+    }
+
+    // Parks the consumer until a frame is offered or nanos pass. Returns straight away if not empty.
+    public void await(long nanosTimeout) {
+        waiter = Thread.currentThread();
+        if (isEmpty()) LockSupport.parkNanos(this, nanosTimeout);
+        waiter = null;
+    }
+
+    // Registers t to be woken by offer() without checking this ring, for a consumer that waits on several.
+    void setWaiter(Thread t) { waiter = t; }
+
+    public boolean isEmpty() { return (long) HEAD.getAcquire(this) >= (long) TAIL.getAcquire(this); }
+
+    /* ===== counters ===== */
+    public int capacity()    { return mask + 1; }
+    public int size()        { return (int) Math.max(0, tail - head); }
+    public long offered()    { return offered; }
+    public long overflows()  { return overflows; }   // refused (DROP_NEWEST) or evicted (DROP_OLDEST)
+    public int highWater()   { return highWater; }
+    public OverflowPolicy policy() { return policy; }
+}
@@ -0,0 +1,30 @@
+import java.util.function.Consumer;
+
+// Receives frames straight out of SerialBridge's ring as primitives, so the hot path allocates nothing.
+// rxNanos is System.nanoTime() taken when the frame's bytes were read off the port.
+@FunctionalInterface
+public interface FrameSink {
+    void onFrame(int canId, long data, long rxNanos);
+
+    // Frames that failed their checksum. Rare, so ignoring them is a fine default.
+    default void onInvalidFrame(int canId, long data, long rxNanos) {}
+
+    // Adapter for the older byte[] callbacks. Payload layout is ID(4 LE) + DATA(8 LE), allocated per frame.
+    static FrameSink ofPayloads(Consumer<byte[]> onMessageRecv, Consumer<byte[]> onMessageInvalid) {
+        return new FrameSink() {
+            @Override public void onFrame(int canId, long data, long rxNanos) {
+                onMessageRecv.accept(toPayload(canId, data));
+            }
+            @Override public void onInvalidFrame(int canId, long data, long rxNanos) {
+                onMessageInvalid.accept(toPayload(canId, data));
+            }
+        };
+    }
+
+    static byte[] toPayload(int canId, long data) {
+        byte[] payload = new byte[12];
+        for (int i = 0; i < 4; i++) payload[i] = (byte) (canId >>> (8 * i));
+        for (int i = 0; i < 8; i++) payload[4 + i] = (byte) (data >>> (8 * i));
+        return payload;
+    }
+}
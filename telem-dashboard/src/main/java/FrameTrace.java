@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Flight recorder for CAN frames: the last N frames as raw primitives in preallocated arrays. Recording is a
+// few array stores, so it can stay on for every frame; nothing is formatted until dump() is called.
+// Any number of threads may record (each claims a slot with one atomic increment). A slot being rewritten
+// while dump() reads it is detected through its sequence stamp and skipped.
+public final class FrameTrace {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    public static final byte VALID = 0, INVALID = 1;
+
+    private static final VarHandle STAMPS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] stamps;     // seq + 1 once the slot holds frame seq, 0 while never written
+    private final long[] nanos;
+    private final long[] data;
+    private final int[] ids;
+    private final byte[] kinds;
+    private final byte[] ports;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    public FrameTrace() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FrameTrace(int capacity) {
+        int cap = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(capacity, 2) - 1));
+        stamps = new long[cap];
+        nanos = new long[cap];
+        data = new long[cap];
+        ids = new int[cap];
+        kinds = new byte[cap];
+        ports = new byte[cap];
+        mask = cap - 1;
+    }
+
+    public void record(int port, byte kind, int canId, long d, long rxNanos) {
+        long seq = next.getAndIncrement();
+        int i = (int) seq & mask;
+        STAMPS.setOpaque(stamps, i, 0L);           // mark in progress
+        VarHandle.storeStoreFence();               // ... before any of the new fields land
+        nanos[i] = rxNanos;
+        data[i] = d;
+        ids[i] = canId;
+        kinds[i] = kind;
+        ports[i] = (byte) port;
+        STAMPS.setRelease(stamps, i, seq + 1);
+    }
+
+    public long recorded() { return next.get(); }
+
+    public int capacity() { return mask + 1; }
+
+    // Writes the retained frames oldest first, one per line. Returns how many were written.
+    // Times are ms relative to the newest frame, so the end of the dump is 0.
+    public int dump(Writer w) throws IOException {
+        PrintWriter out = new PrintWriter(w);
+        long end = next.get();
+        long start = Math.max(0, end - capacity());
+        long newest = Long.MIN_VALUE;
+        for (long seq = start; seq < end; seq++) {
+            int i = (int) seq & mask;
+            if ((long) STAMPS.getAcquire(stamps, i) == seq + 1) newest = Math.max(newest, nanos[i]);
+        }
+        out.println("# " + (end - start) + " of " + end + " frames recorded");
+        out.println("# t_ms,port,kind,node,func,ext,data");
+        int written = 0;
+        for (long seq = start; seq < end; seq++) {
+            int i = (int) seq & mask;
+            if ((long) STAMPS.getAcquire(stamps, i) != seq + 1) continue;
+            long t = nanos[i];
+            long d = data[i];
+            int id = ids[i];
+            byte kind = kinds[i];
+            int port = ports[i];
+            VarHandle.loadLoadFence();
+            if ((long) STAMPS.getAcquire(stamps, i) != seq + 1) continue;   // overwritten while we read it
+            out.println(String.format("%.3f,%d,%s,%d,0x%X,0x%X,0x%016X",
+                    (t - newest) / 1e6, port, (kind == VALID) ? "ok" : "bad",
+                    id & 0b1111111, (id >>> 7) & 0b1111, id >>> 11, d));
+            written++;
+        }
+        out.flush();
+        return written;
+    }
+}
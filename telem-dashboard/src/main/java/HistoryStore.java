@@ -0,0 +1,297 @@
+import java.util.Arrays;
+
+// Every signal's history since startup, in memory, for charts zoomed out past their live window. The newest
+// samples are kept raw; all samples are also rolled up into 1 s, 10 s and 1 min buckets holding min, max and
+// mean. Each tier is a ring with a fixed length, so one signal takes at most SIGNAL_BYTES (about 66 KB, when
+// every tier is full: 1024 raw samples, 10 min of 1 s, 2 h of 10 s and 24 h of 1 min buckets); arrays only grow
+// to that as time passes.
+// All signals together stay within -Dtelem.history.mb (default 256 MB, so about 4000 signals at their worst
+// case). Without it the full car (127 x 8 x 8 signals) would reach about 530 MB in a day. Signals get history
+// in the order they first report until the budget is used up. A signal put on a chart (chart()) always gets
+// one: it takes the place of a signal that isn't charted, and that signal's history is dropped. Others past the
+// budget get none; that is logged once.
+// A query takes the finest tier that still reaches back to the start of the asked range, and merges its
+// buckets down to the number of points the chart has room for, so zooming out over hours costs the same as
+// over seconds.
+//
+// Fed from its own SampleBuffer cursor on the UI tick, and read by the charts on the EDT: EDT only, no locks.
+// Times are seconds since startNanos, the charts' x axis.
+public final class HistoryStore implements SampleBuffer.Sink {
+
+    private static final int RAW_SAMPLES = 1024;
+    private static final long SECOND = 1_000_000_000L;
+    // bucket width and how many are kept, finest first
+    private static final long[] TIER_NANOS = {SECOND, 10 * SECOND, 60 * SECOND};
+    private static final int[] TIER_BUCKETS = {600, 720, 1440};
+
+    // worst case for one signal: raw time + value, and min, max, count, sum per bucket
+    static final long SIGNAL_BYTES = RAW_SAMPLES * 12L
+            + 20L * Arrays.stream(TIER_BUCKETS).sum();
+    public static final long BUDGET_BYTES = Math.max(1, Long.getLong("telem.history.mb", 256)) << 20;
+
+    public enum Aggregate { MIN_MAX, MEAN }
+
+    private final SampleBuffer samples;
+    private final SampleBuffer.Cursor cursor;
+    private final long startNanos;
+    private final Signal[] signals;     // by packed key, null until the first sample or past the budget
+    private final boolean[] charted;    // by packed key
+    private final long budgetBytes;
+    private final int maxSignals;
+    private int kept = 0;               // non-null signals
+    private boolean warnedFull = false;
+    private long version = 0;           // bumped by every drain that added samples
+    private long newestNanos = Long.MIN_VALUE;
+    private long reportedLost = 0;
+
+    public HistoryStore(SampleBuffer samples, long startNanos) {
+        this(samples, startNanos, BUDGET_BYTES);
+    }
+
+    public HistoryStore(SampleBuffer samples, long startNanos, long budgetBytes) {
+        this.samples = samples;
+        this.cursor = samples.cursor();
+        this.startNanos = startNanos;
+        this.signals = new Signal[samples.keySpace()];
+        this.charted = new boolean[samples.keySpace()];
+        this.budgetBytes = budgetBytes;
+        this.maxSignals = (int) Math.max(1, Math.min(samples.keySpace(), budgetBytes / SIGNAL_BYTES));
+    }
+
+    // key is shown on a chart: keep its history even when the budget is used up
+    public void chart(int key) {
+        charted[key] = true;
+    }
+
+    // UI tick
+    public void drain() {
+        if (samples.drainAll(cursor, 0, this) > 0) version++;
+        if (cursor.lost() != reportedLost) {
+            Log.warn("history", "History fell behind, %d samples not kept", cursor.lost() - reportedLost);
+            reportedLost = cursor.lost();
+        }
+    }
+
+    @Override
+    public void onSample(int key, long rxNanos, int value) {
+        Signal s = signals[key];
+        if (s == null && (s = admit(key)) == null) return;
+        long t = Math.max(0, rxNanos - startNanos);     // bucket numbers start at 0
+        s.add(t, value);
+        newestNanos = Math.max(newestNanos, t);
+    }
+
+    // a new Signal for key if the budget allows, making room for a charted key
+    private Signal admit(int key) {
+        if (kept >= maxSignals && charted[key]) {
+            for (int k = 0; k < signals.length && kept >= maxSignals; k++) {
+                if (signals[k] != null && !charted[k]) {
+                    signals[k] = null;
+                    kept--;
+                }
+            }
+        }
+        if (kept >= maxSignals) {
+            if (!warnedFull) {
+                Log.warn("history", "History budget of %d MB is used up by %d signals; others get no history (-Dtelem.history.mb)",
+                        budgetBytes >> 20, kept);
+                warnedFull = true;
+            }
+            return null;
+        }
+        kept++;
+        return signals[key] = new Signal();
+    }
+
+    // changes whenever samples were added
+    public long version() { return version; }
+
+    // time of the newest sample of any signal, in seconds; 0 before the first
+    public double newestSeconds() {
+        return (newestNanos == Long.MIN_VALUE) ? 0 : newestNanos / 1e9;
+    }
+
+    // key's history in [from, to] seconds as at most maxPoints points into xs/ys (length >= maxPoints + 2),
+    // oldest first. MIN_MAX gives each bucket's min and max at its middle, MEAN one point per bucket. Raw
+    // samples are given as they are while they fit. Returns the number of points.
+    public int query(int key, double from, double to, int maxPoints, Aggregate agg, double[] xs, double[] ys) {
+        Signal s = signals[key];
+        if (s == null || to < from) return 0;
+        long lo = (long) (from * 1e9), hi = (long) (to * 1e9);
+        int perBucket = (agg == Aggregate.MEAN) ? 1 : 2;
+        // raw, if it reaches back far enough and fits
+        if (s.rawReaches(lo) && s.rawCount(lo, hi) <= maxPoints) return s.raw(lo, hi, xs, ys);
+        // else the finest tier that reaches and fits; failing that the coarsest, which has the fewest to merge
+        Tier pick = s.tiers[s.tiers.length - 1];
+        for (Tier t : s.tiers) {
+            if (t.reaches(lo) && t.buckets(lo, hi) * perBucket <= maxPoints) {
+                pick = t;
+                break;
+            }
+        }
+        return pick.query(lo, hi, Math.max(1, maxPoints / perBucket), agg, xs, ys);
+    }
+
+    private static final class Signal {
+        private long[] nanos = new long[16];
+        private int[] values = new int[16];
+        private int head = 0, size = 0;
+        private boolean rawEvicted = false;
+        final Tier[] tiers = new Tier[TIER_NANOS.length];
+
+        Signal() {
+            for (int t = 0; t < tiers.length; t++) tiers[t] = new Tier(TIER_NANOS[t], TIER_BUCKETS[t]);
+        }
+
+        void add(long t, int v) {
+            if (size == nanos.length && size < RAW_SAMPLES) {
+                long[] n = new long[size * 2];
+                int[] vs = new int[size * 2];
+                for (int k = 0; k < size; k++) {
+                    n[k] = nanos[(head + k) % nanos.length];
+                    vs[k] = values[(head + k) % nanos.length];
+                }
+                nanos = n;
+                values = vs;
+                head = 0;
+            }
+            if (size == nanos.length) {
+                head = (head + 1) % nanos.length;
+                size--;
+                rawEvicted = true;
+            }
+            int i = (head + size) % nanos.length;
+            nanos[i] = t;
+            values[i] = v;
+            size++;
+            for (Tier tier : tiers) tier.add(t, v);
+        }
+
+        boolean rawReaches(long t) {
+            return !rawEvicted || (size > 0 && nanos[head] <= t);
+        }
+
+        // first raw index (0 = oldest) with time >= t
+        private int rawIndex(long t) {
+            int a = 0, b = size;
+            while (a < b) {
+                int m = (a + b) >>> 1;
+                if (nanos[(head + m) % nanos.length] < t) a = m + 1; else b = m;
+            }
+            return a;
+        }
+
+        int rawCount(long lo, long hi) {
+            return rawIndex(hi + 1) - rawIndex(lo);
+        }
+
+        int raw(long lo, long hi, double[] xs, double[] ys) {
+            int n = 0;
+            for (int k = rawIndex(lo), end = rawIndex(hi + 1); k < end && n < xs.length; k++) {
+                int i = (head + k) % nanos.length;
+                xs[n] = nanos[i] / 1e9;
+                ys[n++] = values[i];
+            }
+            return n;
+        }
+    }
+
+    // Buckets of width nanos, by bucket number (time / width). A ring of the newest <capacity> of them; the
+    // newest is still filling. Empty buckets (no sample in that interval) have count 0 and are skipped.
+    private static final class Tier {
+        final long width;
+        final int capacity;
+        int[] min = new int[8], max = new int[8], count = new int[8];
+        double[] sum = new double[8];
+        long first = 0, last = -1;      // bucket numbers held: first .. last
+        boolean dropped = false;        // has let go of its oldest buckets
+
+        Tier(long width, int capacity) {
+            this.width = width;
+            this.capacity = capacity;
+        }
+
+        private int slot(long id) {
+            return (int) (id % min.length);
+        }
+
+        void add(long t, int v) {
+            long id = Math.floorDiv(t, width);
+            if (last < 0) first = last = id;
+            if (id > last) {
+                if (id - first + 1 > min.length && min.length < capacity) {
+                    resize((int) Math.min(capacity, Math.max(min.length * 2L, id - first + 1)));
+                }
+                for (long k = Math.max(last + 1, id - min.length + 1); k <= id; k++) count[slot(k)] = 0;
+                last = id;
+                if (last - min.length + 1 > first) {
+                    first = last - min.length + 1;
+                    dropped = true;
+                }
+            } else if (id < first) {
+                return;     // older than anything still held
+            }
+            int b = slot(id);
+            if (count[b] == 0) {
+                min[b] = max[b] = v;
+                sum[b] = 0;
+            } else {
+                if (v < min[b]) min[b] = v;
+                if (v > max[b]) max[b] = v;
+            }
+            sum[b] += v;
+            count[b]++;
+        }
+
+        // re-slot the held buckets into arrays of length n
+        private void resize(int n) {
+            int[] mn = new int[n], mx = new int[n], c = new int[n];
+            double[] s = new double[n];
+            for (long id = Math.max(first, last - n + 1); id <= last; id++) {
+                int from = slot(id), to = (int) (id % n);
+                mn[to] = min[from]; mx[to] = max[from]; c[to] = count[from]; s[to] = sum[from];
+            }
+            min = mn; max = mx; count = c; sum = s;
+        }
+
+        // holds the bucket containing t, or has never dropped any
+        boolean reaches(long t) {
+            return last >= 0 && (!dropped || first <= Math.floorDiv(t, width));
+        }
+
+        long buckets(long lo, long hi) {
+            if (last < 0) return 0;
+            long a = Math.max(first, Math.floorDiv(lo, width)), b = Math.min(last, Math.floorDiv(hi, width));
+            return Math.max(0, b - a + 1);
+        }
+
+        // buckets in [lo, hi], merged in groups so at most maxBuckets come out
+        int query(long lo, long hi, int maxBuckets, Aggregate agg, double[] xs, double[] ys) {
+            long a = Math.max(first, Math.floorDiv(lo, width)), b = Math.min(last, Math.floorDiv(hi, width));
+            if (b < a) return 0;
+            long group = Math.max(1, (b - a + maxBuckets) / Math.max(1, maxBuckets));
+            int n = 0;
+            for (long g = a; g <= b; g += group) {
+                int mn = Integer.MAX_VALUE, mx = Integer.MIN_VALUE, c = 0;
+                double s = 0;
+                for (long id = g; id < g + group && id <= b; id++) {
+                    int k = slot(id);
+                    if (count[k] == 0) continue;
+                    mn = Math.min(mn, min[k]);
+                    mx = Math.max(mx, max[k]);
+                    s += sum[k];
+                    c += count[k];
+                }
+                if (c == 0) continue;
+                double mid = (g * width + Math.min(group, b - g + 1) * width / 2) / 1e9;
+                if (agg == Aggregate.MEAN) {
+                    xs[n] = mid; ys[n++] = s / c;
+                } else {
+                    xs[n] = mid; ys[n++] = mn;
+                    if (mx != mn) { xs[n] = mid; ys[n++] = mx; }
+                }
+            }
+            return n;
+        }
+    }
+}
@@ -1,47 +1,29 @@
 // IntConstUtils.java
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.*;
+import java.util.Optional;
 
+// Names for the integer enums in Constants. The generator (constantGen.py) emits the tables next to each enum
+// class: nameByValue for enums with small values, nameByBit for flag enums. Lookups are array reads.
 public final class IntConstUtils {
     private IntConstUtils() {}
 
-    public static Map<Integer,String> buildIntConstantMap(Class<?> clazz) {
-        Map<Integer,String> map = new HashMap<>();
-        for (Field f : clazz.getDeclaredFields()) {
-            int mods = f.getModifiers();
-            if (Modifier.isStatic(mods) && Modifier.isFinal(mods) && f.getType() == int.class) {
-                try {
-                    int val = f.getInt(null);
-                    map.put(val, f.getName());
-                } catch (IllegalAccessException ignored) {}
-            }
-        }
-        return map;
+    public static String nameOrNull(String[] nameByValue, int value) {
+        return (value >= 0 && value < nameByValue.length) ? nameByValue[value] : null;
     }
 
-    /** Store lookup so we only reflect on first call*/
-    private static final Map<Class<?>, Map<Integer,String>> cache = new HashMap<>();
-
-    public static Optional<String> nameFromInt(Class<?> clazz, int value) {
-        Map<Integer,String> map = cache.computeIfAbsent(clazz, IntConstUtils::buildIntConstantMap);
-        return Optional.ofNullable(map.get(value));
+    public static Optional<String> nameFromInt(String[] nameByValue, int value) {
+        return Optional.ofNullable(nameOrNull(nameByValue, value));
     }
 
-    public static String flagsFromInt(Class<?> clazz, int value) {
-    Map<Integer, String> map = cache.computeIfAbsent(clazz, IntConstUtils::buildIntConstantMap);
-
-    List<String> matches = new ArrayList<>();
-    for (Map.Entry<Integer, String> entry : map.entrySet()) {
-        int flag = entry.getKey();
-        if ((value & flag) != 0) { // flag bit is set
-            matches.add(entry.getValue());
+    // Names of the known flags set in value, lowest bit first. Unknown bits are ignored
+    public static String flagsFromInt(String[] nameByBit, int value) {
+        StringBuilder sb = null;
+        for (int bits = value; bits != 0; bits &= bits - 1) {
+            int b = Integer.numberOfTrailingZeros(bits);
+            if (b >= nameByBit.length || nameByBit[b] == null) continue;
+            if (sb == null) sb = new StringBuilder(64);
+            else sb.append(", ");
+            sb.append(nameByBit[b]);
         }
+        return (sb == null) ? "no flags set" : sb.toString();
     }
-
-    if (matches.isEmpty()) {
-        return "no flags set";
-    }
-    return String.join(", ", matches);
 }
-}
\ No newline at end of file
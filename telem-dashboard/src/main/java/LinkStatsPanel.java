@@ -0,0 +1,133 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+
+// Live framing health, one row per link, and one row per decode shard in parallel decode mode.
+// Refreshes on a Swing timer, only while it is showing.
+public class LinkStatsPanel extends JPanel {
+
+    private static final int REFRESH_MS = 500;
+    private static final String[] COLUMNS = {
+        "Link", "Bytes", "Frames", "Frames/s", "Bad checksum", "Resyncs", "Discarded B",
+        "Ring high", "Decode queue", "Queue high", "Queue drops", "Cmd drops"
+    };
+
+    private static final String[] SHARD_COLUMNS = {
+        "Shard", "Queued", "Queue high", "Queue drops", "Decoded", "Mean latency ms", "Max latency ms"
+    };
+
+    private CanParser parser;   // null until links are open
+    private ShardedDecoder.ShardStats[] shardStats = new ShardedDecoder.ShardStats[0];
+    private final JScrollPane shardPane;
+    private SerialBridge.Stats[] stats = new SerialBridge.Stats[0];
+    private FrameRing[] queues = new FrameRing[0];
+    private double[] rates = new double[0];
+    private long[] lastFrames = new long[0];
+    private long lastNanos = 0;
+
+    private final AbstractTableModel model = new AbstractTableModel() {
+        @Override public int getRowCount() { return stats.length; }
+        @Override public int getColumnCount() { return COLUMNS.length; }
+        @Override public String getColumnName(int c) { return COLUMNS[c]; }
+        @Override public Object getValueAt(int r, int c) {
+            SerialBridge.Stats s = stats[r];
+            FrameRing q = queues[r];
+            return switch (c) {
+                case 0 -> s.link();
+                case 1 -> s.bytesRead();
+                case 2 -> s.framesGood();
+                case 3 -> String.format("%.0f", rates[r]);
+                case 4 -> s.checksumFailures();
+                case 5 -> s.resyncSkips();
+                case 6 -> s.discardedBytes();
+                case 7 -> s.ringHighWater() + " / " + s.ringCapacity();
+                case 8 -> q.size() + " / " + q.capacity();
+                case 9 -> q.highWater();
+                case 10 -> q.overflows();
+                case 11 -> s.commandsDropped();
+                default -> "";
+            };
+        }
+    };
+
+    private final AbstractTableModel shardModel = new AbstractTableModel() {
+        @Override public int getRowCount() { return shardStats.length; }
+        @Override public int getColumnCount() { return SHARD_COLUMNS.length; }
+        @Override public String getColumnName(int c) { return SHARD_COLUMNS[c]; }
+        @Override public Object getValueAt(int r, int c) {
+            ShardedDecoder.ShardStats s = shardStats[r];
+            return switch (c) {
+                case 0 -> s.shard();
+                case 1 -> s.queued() + " / " + s.queueCapacity();
+                case 2 -> s.queueHighWater();
+                case 3 -> s.overflows();
+                case 4 -> s.decoded();
+                case 5 -> String.format("%.3f", s.meanLatencyNanos() / 1e6);
+                case 6 -> String.format("%.3f", s.maxLatencyNanos() / 1e6);
+                default -> "";
+            };
+        }
+    };
+
+    public LinkStatsPanel() {
+        setLayout(new BorderLayout());
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        JTable shardTable = new JTable(shardModel);
+        shardTable.setFillsViewportHeight(true);
+        shardPane = new JScrollPane(shardTable);
+        shardPane.setVisible(false);
+        JPanel tables = new JPanel();
+        tables.setLayout(new BoxLayout(tables, BoxLayout.Y_AXIS));   // skips the shard table while it's hidden
+        tables.add(new JScrollPane(table));
+        tables.add(shardPane);
+        add(tables, BorderLayout.CENTER);
+
+        JLabel legend = new JLabel("<html>Bad checksum / resyncs / discarded bytes climbing: line noise or a baud mismatch.<br>"
+                + "Ring or decode queue near full, queue drops: the dashboard is falling behind.</html>");
+        legend.setBorder(BorderFactory.createEmptyBorder(4, 6, 4, 6));
+        add(legend, BorderLayout.SOUTH);
+
+        Timer timer = new Timer(REFRESH_MS, e -> refresh());
+        addHierarchyListener(e -> {
+            if (isShowing()) { refresh(); timer.start(); } else timer.stop();
+        });
+    }
+
+    public void connectParser(CanParser parser) {
+        this.parser = parser;
+    }
+
+    private void refresh() {
+        if (parser == null) return;
+        int n = parser.bridges().size();
+        if (stats.length != n) {
+            stats = new SerialBridge.Stats[n];
+            queues = new FrameRing[n];
+            rates = new double[n];
+            lastFrames = new long[n];
+            lastNanos = 0;
+        }
+        long now = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            stats[i] = parser.bridges().get(i).stats();
+            queues[i] = parser.decodeQueue(i);
+            long frames = stats[i].framesGood();
+            rates[i] = (lastNanos == 0) ? 0 : (frames - lastFrames[i]) * 1e9 / (now - lastNanos);
+            lastFrames[i] = frames;
+        }
+        lastNanos = now;
+        model.fireTableDataChanged();
+
+        ShardedDecoder sd = parser.shards();
+        if (sd != null) {
+            if (shardStats.length != sd.shards()) shardStats = new ShardedDecoder.ShardStats[sd.shards()];
+            for (int i = 0; i < shardStats.length; i++) shardStats[i] = sd.stats(i);
+            shardModel.fireTableDataChanged();
+        }
+        if (shardPane.isVisible() != (sd != null)) {
+            shardPane.setVisible(sd != null);
+            revalidate();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+// The current TelemetryLookup. A lookup never changes once built, so a reload builds a whole new one off the
+// EDT and swaps it in with one reference write; nothing that reads a lookup ever takes a lock.
+// Subscribers are called on the EDT after each swap, in the order they subscribed. Anything a decode thread
+// needs for the new schema should be in place before the subscriber that hands the decoder its new plans.
+//
+// watch() follows a telemetry.csv on disk and reloads it shortly after it changes. A CSV that doesn't parse
+// is reported and ignored; the previous schema stays in use.
+public final class LiveSchema implements AutoCloseable {
+
+    private static final long SETTLE_MILLIS = 250;  // editors save in several writes
+
+    private final AtomicReference<TelemetryLookup> current;
+    private final List<Consumer<TelemetryLookup>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> errorListeners = new CopyOnWriteArrayList<>();
+    private volatile WatchService watcher;
+
+    public LiveSchema(TelemetryLookup initial) {
+        current = new AtomicReference<>(initial);
+    }
+
+    public TelemetryLookup get() { return current.get(); }
+
+    public void subscribe(Consumer<TelemetryLookup> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    // called on the EDT with a message when a reload fails
+    public void onError(Consumer<String> listener) {
+        errorListeners.add(listener);
+    }
+
+    // Publish next and notify subscribers on the EDT
+    public void publish(TelemetryLookup next) {
+        current.set(next);
+        SwingUtilities.invokeLater(() -> {
+            if (current.get() != next) return;      // a newer one is on its way
+            for (Consumer<TelemetryLookup> s : subscribers) s.accept(next);
+        });
+    }
+
+    // Reload from csv (through the schema snapshot) and publish. Returns false if it didn't parse
+    public boolean reload(Path csv, Path snapshot) {
+        try (InputStream in = Files.newInputStream(csv)) {
+            TelemetryLookup next = SchemaSnapshot.load(in, snapshot);
+            publish(next);
+            Log.info("schema", "Reloaded %s: %d signals", csv.getFileName(), next.signalCount());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            String msg = "Reloading " + csv.getFileName() + " failed, keeping the previous schema: " + e.getMessage();
+            Log.warn("schema", "%s", msg);
+            SwingUtilities.invokeLater(() -> errorListeners.forEach(l -> l.accept(msg)));
+            return false;
+        }
+    }
+
+    // Start a "schema-watch" thread that reloads csv whenever it is written or replaced
+    public void watch(Path csv, Path snapshot) throws IOException {
+        Path file = csv.toAbsolutePath();
+        Path dir = file.getParent();
+        WatchService ws = FileSystems.getDefault().newWatchService();
+        // the directory, not the file: editors that save by rename replace the file we would be watching
+        dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watcher = ws;
+        Thread t = new Thread(() -> watchLoop(ws, file, snapshot), "schema-watch");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void watchLoop(WatchService ws, Path file, Path snapshot) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                boolean ours = pollOurs(key, file);
+                // let the burst of events from one save settle before reading
+                WatchKey more;
+                while ((more = ws.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) ours |= pollOurs(more, file);
+                if (ours && Files.isRegularFile(file)) reload(file, snapshot);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private static boolean pollOurs(WatchKey key, Path file) {
+        boolean ours = false;
+        for (var ev : key.pollEvents()) {
+            if (ev.kind() == StandardWatchEventKinds.OVERFLOW) ours = true;     // events were lost, check anyway
+            else if (ev.context() instanceof Path p && file.getFileName().equals(p)) ours = true;
+        }
+        key.reset();
+        return ours;
+    }
+
+    @Override
+    public void close() {
+        WatchService ws = watcher;
+        if (ws == null) return;
+        try { ws.close(); } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,130 @@
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Console logging off the hot path. Callers only check the level and the category's rate limit and queue the
+// format string and args; a "log-writer" thread formats and prints. Nothing a decoder or reader does ever
+// waits on stdout. When the queue is full, or a category is over its rate, messages are dropped and counted,
+// and the count goes out with that category's next message.
+//
+// Level comes from -Dtelem.log.level=DEBUG|INFO|WARN|ERROR (default INFO).
+public final class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int DEFAULT_PER_SECOND = 20;    // sustained messages per category
+    private static final int DEFAULT_BURST = 50;
+
+    private static volatile Level threshold = parseLevel(System.getProperty("telem.log.level", "INFO"));
+    private static final Map<String, Category> categories = new ConcurrentHashMap<>();
+    private static final ArrayBlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final PrintStream out = System.out;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private record Entry(long millis, Level level, Category category, String format, Object[] args, long suppressed) {}
+
+    static {
+        Thread writer = new Thread(Log::writeLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private Log() {}
+
+    public static void debug(String category, String format, Object... args) { log(Level.DEBUG, category, format, args); }
+    public static void info(String category, String format, Object... args)  { log(Level.INFO, category, format, args); }
+    public static void warn(String category, String format, Object... args)  { log(Level.WARN, category, format, args); }
+    public static void error(String category, String format, Object... args) { log(Level.ERROR, category, format, args); }
+
+    public static boolean enabled(Level level) { return level.ordinal() >= threshold.ordinal(); }
+
+    public static void setLevel(Level level) { threshold = level; }
+
+    // Override the rate limit for one category (e.g. allow more "link" messages while debugging a cable)
+    public static void setRate(String category, int perSecond, int burst) {
+        categories.put(category, new Category(category, perSecond, burst));
+    }
+
+    public static void log(Level level, String category, String format, Object... args) {
+        if (!enabled(level)) return;
+        Category c = categories.computeIfAbsent(category, k -> new Category(k, DEFAULT_PER_SECOND, DEFAULT_BURST));
+        if (!c.tryAcquire()) return;
+        long suppressed = c.takeSuppressed();
+        if (!queue.offer(new Entry(System.currentTimeMillis(), level, c, format, args, suppressed))) {
+            c.suppressed.addAndGet(suppressed + 1);  // writer is behind, try again with the next one
+        }
+    }
+
+    private static void writeLoop() {
+        List<Entry> batch = new ArrayList<>(QUEUE_CAPACITY);
+        StringBuilder sb = new StringBuilder(256);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            sb.setLength(0);
+            for (Entry e : batch) {
+                TIME.formatTo(Instant.ofEpochMilli(e.millis()), sb);
+                sb.append(' ').append(e.level()).append(" [").append(e.category().name).append("] ");
+                try {
+                    sb.append((e.args() == null || e.args().length == 0) ? e.format() : String.format(e.format(), e.args()));
+                } catch (RuntimeException ex) {
+                    sb.append(e.format()).append(" (bad log format: ").append(ex.getMessage()).append(')');
+                }
+                if (e.suppressed() > 0) sb.append(" (+").append(e.suppressed()).append(" suppressed)");
+                sb.append('\n');
+            }
+            out.print(sb);
+            out.flush();
+            batch.clear();
+        }
+    }
+
+    private static Level parseLevel(String s) {
+        try { return Level.valueOf(s.trim().toUpperCase()); }
+        catch (IllegalArgumentException e) { return Level.INFO; }
+    }
+
+    // Token bucket per category. Tokens are counted in nanos of budget so refills need no timer
+    private static final class Category {
+        final String name;
+        final long nanosPerToken;
+        final long burstNanos;
+        final AtomicLong budgetStart;   // bucket is full when now - budgetStart >= burstNanos
+        final AtomicLong suppressed = new AtomicLong();
+
+        Category(String name, int perSecond, int burst) {
+            this.name = name;
+            this.nanosPerToken = 1_000_000_000L / Math.max(1, perSecond);
+            this.burstNanos = nanosPerToken * Math.max(1, burst);
+            this.budgetStart = new AtomicLong(System.nanoTime() - burstNanos);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                long now = System.nanoTime();
+                long start = budgetStart.get();
+                long floor = now - burstNanos;
+                long s = Math.max(start, floor);        // can't bank more than a full bucket
+                if (now - s < nanosPerToken) {
+                    suppressed.incrementAndGet();
+                    return false;
+                }
+                if (budgetStart.compareAndSet(start, s + nanosPerToken)) return true;
+            }
+        }
+
+        long takeSuppressed() { return suppressed.getAndSet(0); }
+    }
+}
@@ -2,40 +2,87 @@ import javax.swing.*;
 import com.formdev.flatlaf.FlatDarkLaf;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class MainApp {
+    // Arguments pick the frame sources, one per bridge, see Transport.open.
+    // e.g. gradle run --args="serial:/dev/ttyACM0 serial:/dev/ttyACM1" or --args="tcp:10.0.0.2:9000"
+    // --decode-shards=N decodes on N worker threads (frames hashed by nodeId) instead of one.
+    // --schema=<telemetry.csv> reads the schema from that file instead of the bundled one, and reloads it
+    // whenever the file changes.
     public static void main(String[] args) {
+        final List<String> specs = new ArrayList<>();
+        int shards = 0;
+        Path schema = null;
+        for (String arg : args) {
+            if (arg.startsWith("--decode-shards=")) shards = Integer.parseInt(arg.substring("--decode-shards=".length()));
+            else if (arg.startsWith("--schema=")) schema = Path.of(arg.substring("--schema=".length()));
+            else specs.add(arg);
+        }
+        final List<String> transportSpecs = specs.isEmpty() ? List.of(Transport.DEFAULT_SPEC) : specs;
+        final int decodeShards = shards;
+        final Path schemaFile = schema;
+
+        // Load Telemetry lookup, which contains info on sensors, while the look and feel initialises.
+        // It comes from the schema snapshot when telemetry.csv hasn't changed since it was written.
+        final CompletableFuture<TelemetryLookup> lookupLoad = CompletableFuture.supplyAsync(() -> {
+            try (InputStream in = (schemaFile != null) ? Files.newInputStream(schemaFile)
+                                                       : MainApp.class.getResourceAsStream("/telemetry.csv")) {
+                if (in == null) throw new IllegalStateException("telemetry.csv not found on classpath");
+                return SchemaSnapshot.load(in, SchemaSnapshot.DEFAULT_PATH);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
         // Start in dark
         try { UIManager.setLookAndFeel(new FlatDarkLaf()); }
         catch (Exception ex) { System.err.println("Failed to init LaF"); }
 
-        SwingUtilities.invokeLater(() -> {
-            try {
-                // Load Telemetry lookup, which contains info on sensors.
-                TelemetryLookup lookup;
-                try (InputStream in = MainApp.class.getResourceAsStream("/telemetry.csv")) {
-                    if (in == null) throw new IllegalStateException("telemetry.csv not found on classpath");
-                    lookup = new TelemetryLookup(in);
-                }
+        final TelemetryLookup lookup;
+        try {
+            lookup = lookupLoad.join();
+        } catch (CompletionException e) {
+            e.getCause().printStackTrace();
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "Failed to load telemetry.csv", "Error",
+                    JOptionPane.ERROR_MESSAGE));
+            return;
+        }
 
-                // Build UI
-                System.out.println("making UI");
-                NotificationPanel notifications = new NotificationPanel();
-                SensorSelectionPanel selectionPanel = new SensorSelectionPanel(lookup);
-                final int chartCountVertical = 2; final int chartCountHorizontal = 2;
-                MainPanel mainPanel = new MainPanel(lookup, chartCountVertical, chartCountHorizontal);
-                MainFrame frame = new MainFrame(lookup, selectionPanel, notifications, mainPanel);
-                mainPanel.connectFrame(frame);
-                frame.setVisible(true);
-                System.out.println("parsing");
+        SwingUtilities.invokeLater(() -> {
+            // Build UI
+            System.out.println("making UI");
+            NotificationPanel notifications = new NotificationPanel();
+            SensorSelectionPanel selectionPanel = new SensorSelectionPanel(lookup);
+            final int chartCountVertical = 2; final int chartCountHorizontal = 2;
+            MainPanel mainPanel = new MainPanel(lookup, chartCountVertical, chartCountHorizontal);
+            MainFrame frame = new MainFrame(lookup, selectionPanel, notifications, mainPanel);
+            mainPanel.connectFrame(frame);
+            frame.setVisible(true);
+            System.out.println("parsing");
 
-                // Parse Can Messages, and update UI for them
-                CanParser parser = new CanParser(lookup, notifications, mainPanel);
+            // Parse Can Messages, and update UI for them
+            CanParser parser = new CanParser(lookup, notifications, mainPanel, transportSpecs, decodeShards);
+            frame.connectParser(parser);
 
-            } catch (IOException e) {
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(null, "Failed to load telemetry.csv", "Error",
-                        JOptionPane.ERROR_MESSAGE);
+            // The main panel opens sample buffers for new signals before the parser can decode them
+            LiveSchema live = new LiveSchema(lookup);
+            live.subscribe(mainPanel::reload);
+            live.subscribe(parser::reload);
+            live.subscribe(selectionPanel::reload);
+            live.onError(msg -> notifications.post(NotificationPanel.Status.WARNING, NotificationPanel.Channel.TELEMETRY, msg));
+            if (schemaFile != null) {
+                try {
+                    live.watch(schemaFile, SchemaSnapshot.DEFAULT_PATH);
+                } catch (IOException e) {
+                    Log.warn("schema", "Not watching %s for changes: %s", schemaFile, e.getMessage());
+                }
             }
         });
     }
@@ -38,6 +38,12 @@ public class MainFrame extends JFrame {
     }
 
     private final JToggleButton addSensorButton = new JToggleButton();
+    private final LinkStatsPanel linkStatsPanel = new LinkStatsPanel();
+
+    // Links are opened after the frame is built
+    public void connectParser(CanParser parser) {
+        linkStatsPanel.connectParser(parser);
+    }
 
     public boolean getMultiStatus() {
         return addSensorButton.isSelected();
@@ -79,17 +85,13 @@ public class MainFrame extends JFrame {
         });
 
         // slider for how many data to show
-        JSlider slider = new JSlider(JSlider.HORIZONTAL, 0, 100, 10);
-        slider.setMajorTickSpacing(10);
-        slider.setMinorTickSpacing(1);
-        slider.setPaintTicks(true);
-        slider.setPaintLabels(true);
+        WindowSlider slider = new WindowSlider(mainPanel.getMaxElementsToShow());
         slider.setPreferredSize(new Dimension(300, 50));
         slider.addChangeListener(new ChangeListener() {
             public void stateChanged(ChangeEvent e) {
-                JSlider source = (JSlider) e.getSource();
+                WindowSlider source = (WindowSlider) e.getSource();
                 if (!source.getValueIsAdjusting()) {
-                    mainPanel.setMaxElementsToShow(source.getValue());
+                    mainPanel.setMaxElementsToShow(source.getPoints());
                     mainPanel.updateCharts();
                 }
             }
@@ -110,6 +112,21 @@ public class MainFrame extends JFrame {
         Image multiImage = multiIcon.getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH);
         addSensorButton.setIcon(new ImageIcon(multiImage));
 
+        // link health (framing counters and queue depths)
+        JDialog linkStatsDialog = new JDialog(this, "Link Stats");
+        linkStatsDialog.setLayout(new BorderLayout());
+        linkStatsDialog.add(linkStatsPanel, BorderLayout.CENTER);
+        linkStatsDialog.setPreferredSize(new Dimension(1000, 200));
+        linkStatsDialog.pack();
+
+        JButton linkStatsButton = new JButton("Rx");
+        linkStatsButton.setToolTipText("Link stats");
+        linkStatsButton.setPreferredSize(buttonSize);
+        linkStatsButton.setMinimumSize(buttonSize);
+        linkStatsButton.setMaximumSize(buttonSize);
+        linkStatsButton.setMargin(new Insets(0, 0, 0, 0));
+        linkStatsButton.addActionListener(e -> linkStatsDialog.setVisible(!linkStatsDialog.isVisible()));
+
         // add the buttons to a panel
         JPanel buttonPanel = new JPanel();
         buttonPanel.setLayout(new BoxLayout(buttonPanel, BoxLayout.Y_AXIS));
@@ -120,6 +137,8 @@ public class MainFrame extends JFrame {
         buttonPanel.add(sliderButton);
         buttonPanel.add(Box.createVerticalStrut(10));
         buttonPanel.add(addSensorButton);
+        buttonPanel.add(Box.createVerticalStrut(10));
+        buttonPanel.add(linkStatsButton);
 
         // Splits: (notifications | (left selection | main charts))
         JSplitPane innerSplit = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, scrollPane, mainPanel);
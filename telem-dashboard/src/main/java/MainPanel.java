@@ -1,9 +1,6 @@
 import java.awt.*;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.dnd.*;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.text.NumberFormat;
 import java.util.*;
 import java.util.List;
@@ -22,35 +19,50 @@ import org.jfree.chart.renderer.AbstractRenderer;
 import org.jfree.chart.ui.Layer;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.axis.ValueAxis;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 // The panel displaying the charts of data
 public class MainPanel extends JPanel {
 
     private final List<JFreeChart> charts = new ArrayList<>();
-    private final List<JPanel> chartPanels = new ArrayList<>();
+    private final List<JPanel> chartPanels = new ArrayList<>();    // grid cells: the chart, or its strip chart
     private List<ChartPanel> chartPanelList = new ArrayList<>();
+    private final Map<ChartPanel, StripChart> strips = new IdentityHashMap<>();   // cells showing a strip chart
+    private Color stripBackground = Color.DARK_GRAY, stripForeground = Color.WHITE;
 
-    private final Map<TelemetryLookup.DataKey, XYSeries> seriesByRef = new HashMap<>();
+    private final Map<TelemetryLookup.DataKey, RingXYDataset.Series> seriesByRef = new HashMap<>();
 
     private int MAX_ELEMENTS_TO_SHOW = 10;   //set default number of data displayed to 10, can be updated with slider
-    private static final double startTime = System.currentTimeMillis();
-
-    private final TelemetryLookup lookup; 
+    // Series on no chart keep only their newest few points, however high the sliders go: every signal's series
+    // is filled, and at the sliders' 1M points each would take about 24 MB. A drop onto a chart gives it
+    // MAX_ELEMENTS_TO_SHOW, and it shrinks back when it leaves the last chart showing it
+    private static final int UNCHARTED_POINTS = 100;
+    // Sample times are System.nanoTime() stamps taken when the frame was read, shown relative to startup
+    private static final long startNanos = System.nanoTime();
+
+    private TelemetryLookup lookup;     // EDT only, replaced by reload()
     private MainFrame mainFrame = null;
 
+    // Decoders only append to samples; the UI tick moves them into the series (EDT only), the CSV recorder to disk.
+    // Both are indexed by packed key, so a schema reload leaves buffered samples and history with their signal
+    private final SampleBuffer samples;
+    private final SampleBuffer.Cursor chartCursor;
+    private final RingXYDataset.Series[] seriesByKey = new RingXYDataset.Series[TelemetryLookup.KEY_SPACE];
+    private final CsvRecorder csv;
+    private final HistoryStore history;     // every signal since startup, for charts zoomed out past their window
+    private final SampleBuffer.Sink toSeries = this::addToSeries;
+    private final Set<RingXYDataset.Series> drained = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final RenderScheduler render = new RenderScheduler(RenderScheduler.FPS);
+
 public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountHorizontal) {
     this.lookup = lookup;
     setLayout(new GridLayout(chartCountVertical, chartCountHorizontal));
 
-    /* 1) Build one XYSeries per DataKey */
-    for (TelemetryLookup.DataKey key : lookup.allDataKeys()) {
-        String title = lookup.titleFor(key);        // "<nodeName>.<dataName>"
-        XYSeries series = new XYSeries(title);
-        series.setMaximumItemCount(MAX_ELEMENTS_TO_SHOW);
-        seriesByRef.put(key, series);
-    }
+    /* 1) Build one series per DataKey, and its sample ring */
+    samples = new SampleBuffer(TelemetryLookup.KEY_SPACE, SampleBuffer.DEFAULT_CAPACITY);
+    chartCursor = samples.cursor();
+    csv = new CsvRecorder(samples, startNanos);
+    history = new HistoryStore(samples, startNanos);
+    addSignals(lookup);
 
     /* 2) Create the grid of charts*/
     final int numCharts = chartCountVertical * chartCountHorizontal;
@@ -59,10 +71,11 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
         if (i >= numCharts) break;
 
         TelemetryLookup.DataKey key = entry.getKey();
-        XYSeries series = entry.getValue();
+        RingXYDataset.Series series = entry.getValue();
 
         String title = lookup.titleFor(key);
-        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        series.setCapacity(MAX_ELEMENTS_TO_SHOW);
+        RingXYDataset dataset = new RingXYDataset(series);
         JFreeChart chart = createChart(dataset, title);
 
         // Style chart once at creation
@@ -86,16 +99,21 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
 
         charts.add(chart);
 
-        ChartPanel cp = new CustomChartPanel(chart);
+        if (series.getSignal() >= 0) history.chart(series.getSignal());
+        CustomChartPanel cp = new CustomChartPanel(chart, history);
         cp.setDomainZoomable(false);
         cp.setRangeZoomable(false);
         cp.setHorizontalAxisTrace(false);
         cp.setVerticalAxisTrace(false);
         cp.setBorder(new LineBorder(Color.BLACK));
+        cp.setStripChartAction(() -> showStripChart(cp, true));
 
+        // the cell shows the chart, or a strip chart of its signal in its place (see showStripChart)
+        JPanel cell = new JPanel(new CardLayout());
+        cell.add(cp, "chart");
         chartPanelList.add(cp);
-        chartPanels.add(cp);
-        add(cp);
+        chartPanels.add(cell);
+        add(cell);
 
         i++;
     }
@@ -120,11 +138,15 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
                 if (dpOpt.isEmpty()) { dtde.dropComplete(false); return; }
                 TelemetryLookup.DataInfo dp = dpOpt.get();
 
-                XYSeries ser = seriesByRef.get(key); // series was created in step (1)
+                RingXYDataset.Series ser = seriesByRef.get(key); // series was created in step (1)
                 if (ser == null) { // shouldn't happen, but handle defensively
-                    ser = new XYSeries(lookup.titleFor(key));
-                    ser.setMaximumItemCount(MAX_ELEMENTS_TO_SHOW);
+                    boolean packable = TelemetryLookup.inRange(key.nodeId(), key.frameIndex(), key.dataIndex());
+                    ser = new RingXYDataset.Series(lookup.titleFor(key), packable ? key.packed() : -1, UNCHARTED_POINTS);
                     seriesByRef.put(key, ser);
+                    if (packable) {
+                        seriesByKey[key.packed()] = ser;
+                        samples.open(key.packed());
+                    }
                 }
 
                 ChartPanel droppedChartPanel = (ChartPanel) dtde.getDropTargetContext().getComponent();
@@ -132,16 +154,22 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
                 if(mainFrame == null){
                     System.out.println("havent connected mainFrame yet. :/");
                 }
+                if (!onChart(ser)) ser.setCapacity(MAX_ELEMENTS_TO_SHOW);
                 if (mainFrame != null && mainFrame.getMultiStatus()) {
                     // Add series to existing dataset
-                    XYSeriesCollection dataset = (XYSeriesCollection) chart.getXYPlot().getDataset();
-                    dataset.addSeries(ser);
+                    RingXYDataset dataset = (RingXYDataset) chart.getXYPlot().getDataset();
+                    if (!dataset.contains(ser)) dataset.addSeries(ser);
+                    if (ser.getSignal() >= 0) history.chart(ser.getSignal());
                     chart.setTitle("Multiple Sensors");
                 } else {
                     // Replace dataset with a single series
-                    XYSeriesCollection dataset = new XYSeriesCollection();
-                    dataset.addSeries(ser);
-                    chart.getXYPlot().setDataset(dataset);
+                    RingXYDataset replaced = (RingXYDataset) chart.getXYPlot().getDataset();
+                    chart.getXYPlot().setDataset(new RingXYDataset(ser));
+                    for (int s = 0; s < replaced.getSeriesCount(); s++) {
+                        if (!onChart(replaced.getSeries(s))) replaced.getSeries(s).setCapacity(UNCHARTED_POINTS);
+                    }
+                    ((CustomChartPanel) droppedChartPanel).showingLive();
+                    if (ser.getSignal() >= 0) history.chart(ser.getSignal());
                     chart.setTitle(lookup.titleFor(key));
                 }
 
@@ -167,13 +195,101 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
         }
     };
 
-    // Attach the DropTarget to each displayed chart panel
-    for (ChartPanel cp : chartPanelList) {
-        new DropTarget(cp, DnDConstants.ACTION_COPY, dtl, true);
+    // Attach the DropTarget to each displayed chart panel (there is no drag and drop without a display)
+    if (!GraphicsEnvironment.isHeadless()) {
+        for (ChartPanel cp : chartPanelList) {
+            new DropTarget(cp, DnDConstants.ACTION_COPY, dtl, true);
+        }
     }
 
     darkenCharts();
+    UiTick.add(this::drainSamples);
 }
+
+    // Series, sample rings and CSV names for every signal in lookup. Existing series keep their points
+    private void addSignals(TelemetryLookup lookup) {
+        for (TelemetryLookup.DataKey key : lookup.allDataKeys()) {
+            if (!TelemetryLookup.inRange(key.nodeId(), key.frameIndex(), key.dataIndex())) continue;
+            String title = lookup.titleFor(key);        // "<nodeName>.<dataName>"
+            RingXYDataset.Series series = seriesByRef.get(key);
+            if (series == null) {
+                series = new RingXYDataset.Series(title, key.packed(), UNCHARTED_POINTS);
+                seriesByRef.put(key, series);
+            }   // a renamed signal keeps its series key; reload() retitles the charts showing it
+            seriesByKey[key.packed()] = series;
+            samples.open(key.packed());         // before any decoder can see the signal
+            csv.setFileName(key.packed(), title);
+        }
+    }
+
+    // Switch to a reloaded schema (EDT). New signals get series; titles and threshold markers follow the new
+    // CSV. Signals that were removed keep their series and history but receive nothing more.
+    public void reload(TelemetryLookup next) {
+        lookup = next;
+        addSignals(next);
+        Map<RingXYDataset.Series, TelemetryLookup.DataKey> keyOf = new IdentityHashMap<>();
+        seriesByRef.forEach((k, ser) -> keyOf.put(ser, k));
+        for (JFreeChart chart : charts) {
+            RingXYDataset dataset = (RingXYDataset) chart.getXYPlot().getDataset();
+            if (dataset.getSeriesCount() != 1) continue;    // "Multiple Sensors" charts keep their title
+            TelemetryLookup.DataKey key = keyOf.get(dataset.getSeries(0));
+            if (key == null || next.getDataInfo(key).isEmpty()) continue;
+            chart.setTitle(next.titleFor(key));
+            chart.getXYPlot().getRangeAxis().setLabel(next.titleFor(key));
+            applyThresholdMarkers(chart, key);
+        }
+        for (StripChart sc : strips.values()) {
+            TelemetryLookup.DataKey key = keyOf(sc.getKey());
+            next.getDataInfo(key).ifPresent(dp -> sc.setSignal(next.titleFor(key), dp, thresholdMarkers(dp)));
+        }
+    }
+
+    // Chart type of one cell: a StripChart of the chart's signal in its place, or the JFreeChart back. Only for
+    // charts of one signal
+    private void showStripChart(ChartPanel cp, boolean strip) {
+        JPanel cell = (JPanel) cp.getParent();
+        StripChart current = strips.remove(cp);
+        if (current != null) {
+            render.removeStrip(current);
+            cell.remove(current);
+        }
+        if (strip) {
+            RingXYDataset dataset = (RingXYDataset) cp.getChart().getXYPlot().getDataset();
+            int signal = (dataset.getSeriesCount() == 1) ? dataset.getSeries(0).getSignal() : -1;
+            TelemetryLookup.DataKey key = (signal < 0) ? null : keyOf(signal);
+            Optional<TelemetryLookup.DataInfo> info = (key == null) ? Optional.empty() : lookup.getDataInfo(key);
+            if (info.isEmpty()) {
+                Log.warn("charts", "Strip charts show a single signal; %s has none to show", cp.getChart().getTitle().getText());
+                return;
+            }
+            StripChart sc = new StripChart(samples, startNanos, signal, lookup.titleFor(key), info.get(), thresholdMarkers(info.get()));
+            sc.setColors(stripBackground, stripForeground);
+            sc.setBorder(new LineBorder(Color.BLACK));
+            JPopupMenu menu = new JPopupMenu();
+            JMenuItem back = new JMenuItem("Line chart");
+            back.addActionListener(e -> showStripChart(cp, false));
+            menu.add(back);
+            sc.setComponentPopupMenu(menu);
+            strips.put(cp, sc);
+            cell.add(sc, "strip");
+            render.addStrip(sc);
+        }
+        ((CardLayout) cell.getLayout()).show(cell, strip ? "strip" : "chart");
+        cell.revalidate();
+        cell.repaint();
+    }
+
+    private boolean onChart(RingXYDataset.Series ser) {
+        for (JFreeChart chart : charts) {
+            if (((RingXYDataset) chart.getXYPlot().getDataset()).contains(ser)) return true;
+        }
+        return false;
+    }
+
+    private static TelemetryLookup.DataKey keyOf(int packed) {
+        return new TelemetryLookup.DataKey(TelemetryLookup.nodeOf(packed), TelemetryLookup.frameOf(packed), TelemetryLookup.dataOf(packed));
+    }
+
     public void connectFrame(MainFrame mainFrame) {
         this.mainFrame=mainFrame;
     }
@@ -181,41 +297,73 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
         lookup.getDataInfo(key).ifPresent(dp -> {
             XYPlot plot = chart.getXYPlot();
             plot.clearRangeMarkers();
+            for (ValueMarker m : thresholdMarkers(dp)) plot.addRangeMarker(m, Layer.FOREGROUND);
+        });
+
+    }
 
-            ValueMarker wMin = new ValueMarker(dp.minWarning());
-            wMin.setPaint(Color.YELLOW); wMin.setStroke(new BasicStroke(2f));
-            plot.addRangeMarker(wMin, Layer.FOREGROUND);
+    // Warning (yellow) and critical (red) limits, for JFreeChart plots and strip charts alike
+    static List<ValueMarker> thresholdMarkers(TelemetryLookup.DataInfo dp) {
+        ValueMarker wMin = new ValueMarker(dp.minWarning());
+        wMin.setPaint(Color.YELLOW); wMin.setStroke(new BasicStroke(2f));
 
-            ValueMarker wMax = new ValueMarker(dp.maxWarning());
-            wMax.setPaint(Color.YELLOW); wMax.setStroke(new BasicStroke(2f));
-            plot.addRangeMarker(wMax, Layer.FOREGROUND);
+        ValueMarker wMax = new ValueMarker(dp.maxWarning());
+        wMax.setPaint(Color.YELLOW); wMax.setStroke(new BasicStroke(2f));
 
-            ValueMarker cMin = new ValueMarker(dp.minCritical());
-            cMin.setPaint(Color.RED); cMin.setStroke(new BasicStroke(2f));
-            plot.addRangeMarker(cMin, Layer.FOREGROUND);
+        ValueMarker cMin = new ValueMarker(dp.minCritical());
+        cMin.setPaint(Color.RED); cMin.setStroke(new BasicStroke(2f));
 
-            ValueMarker cMax = new ValueMarker(dp.maxCritical());
-            cMax.setPaint(Color.RED); cMax.setStroke(new BasicStroke(2f));
-            plot.addRangeMarker(cMax, Layer.FOREGROUND);
-        });
+        ValueMarker cMax = new ValueMarker(dp.maxCritical());
+        cMax.setPaint(Color.RED); cMax.setStroke(new BasicStroke(2f));
 
+        return List.of(wMin, wMax, cMin, cMax);
     }
     public boolean addDataPoint(TelemetryLookup.DataKey key, int value){
-        if(!seriesByRef.containsKey(key)){
+        return addDataPoint(key, value, System.nanoTime());
+    }
+    // rxNanos: when the sample's frame was received (System.nanoTime()), not when the chart got to it.
+    // Safe from the decode threads: only queues the sample, the UI tick draws it
+    public boolean addDataPoint(TelemetryLookup.DataKey key, int value, long rxNanos){
+        if (!TelemetryLookup.inRange(key.nodeId(), key.frameIndex(), key.dataIndex())) {
             return false;
         }
-        XYSeries updatedSeries = seriesByRef.get(key);
-        updatedSeries.add((System.currentTimeMillis() - startTime) / 1000.0, value);
-        updateCSV(value, lookup.titleFor(key), startTime);
-        return true;
+        return samples.add(key.packed(), value, rxNanos);
+    }
+
+    private void addToSeries(int key, long rxNanos, int value) {
+        seriesByKey[key].add((rxNanos - startNanos) / 1e9, value);
+    }
+
+    // UI tick: everything decoded since the last tick goes into the history and the series, and the charts
+    // showing any of them are marked and rendered, if a frame is due. A series keeps at most its capacity (its
+    // chart's slider, or UNCHARTED_POINTS), so older samples are skipped rather than added and evicted
+    private void drainSamples() {
+        history.drain();
+        for (int key : samples.keys()) {
+            RingXYDataset.Series ser = seriesByKey[key];
+            if (samples.drain(chartCursor, key, ser.getCapacity(), toSeries) > 0) drained.add(ser);
+        }
+        if (!drained.isEmpty()) {
+            for (ChartPanel cp : chartPanelList) {
+                RingXYDataset dataset = (RingXYDataset) cp.getChart().getXYPlot().getDataset();
+                for (int i = 0; i < dataset.getSeriesCount(); i++) {
+                    if (drained.contains(dataset.getSeries(i))) {
+                        render.markDirty(cp);
+                        break;
+                    }
+                }
+            }
+            drained.clear();
+        }
+        render.tick();      // same tick, so what was just drained is drawn now
     }
-    public boolean addDataPoint(int nodeId, int frameIdx, int dataIdx, int value){
+    public boolean addDataPoint(int nodeId, int frameIdx, int dataIdx, int value, long rxNanos){
         TelemetryLookup.DataKey key = new TelemetryLookup.DataKey(nodeId, frameIdx, dataIdx);
-        return addDataPoint(key, value);
+        return addDataPoint(key, value, rxNanos);
     }
 
     //Chart Axis Labels and Frame
-    private JFreeChart createChart(XYSeriesCollection dataset, String title) {
+    private JFreeChart createChart(RingXYDataset dataset, String title) {
         return ChartFactory.createXYLineChart(
             title,
             "Time",
@@ -226,6 +374,9 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
     }
 
     public void lightenCharts() {
+        stripBackground = Color.WHITE;
+        stripForeground = Color.DARK_GRAY;
+        for (StripChart sc : strips.values()) sc.setColors(stripBackground, stripForeground);
         for (JFreeChart chart : this.charts) {
             chart.getTitle().setPaint(Color.BLACK);
             chart.setBackgroundPaint(Color.WHITE);
@@ -249,6 +400,9 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
         }
     }
     public void darkenCharts() {
+        stripBackground = Color.DARK_GRAY;
+        stripForeground = Color.WHITE;
+        for (StripChart sc : strips.values()) sc.setColors(stripBackground, stripForeground);
         for (JFreeChart chart : this.charts) {
             chart.getTitle().setPaint(Color.WHITE);
             chart.setBackgroundPaint(Color.DARK_GRAY);
@@ -283,33 +437,11 @@ public MainPanel(TelemetryLookup lookup, int chartCountVertical, int chartCountH
 
     public void updateCharts() {
         for (JFreeChart chart : charts) {
-            for (int i = 0; i < chart.getXYPlot().getDataset().getSeriesCount(); i++) {
-                XYSeries series = ((XYSeriesCollection) chart.getXYPlot().getDataset()).getSeries(i);
-                series.setMaximumItemCount(MAX_ELEMENTS_TO_SHOW);
+            RingXYDataset dataset = (RingXYDataset) chart.getXYPlot().getDataset();
+            for (int i = 0; i < dataset.getSeriesCount(); i++) {
+                dataset.getSeries(i).setCapacity(MAX_ELEMENTS_TO_SHOW);
             }
+            dataset.changed();
         }
     }
-
-    public void updateCSV(double data, String fileName, double currTime){
-        try {
-            File z = new File("data/");
-
-            if (!z.exists()) {
-                z.mkdir();
-            }
-
-            File f = new File("data/" + fileName + ".csv");
-            if (!f.exists()){
-                f.createNewFile();
-            }
-            FileWriter writer = new FileWriter(f, true);
-            writer.append(String.valueOf(Math.floorDiv( (long) (System.currentTimeMillis() - MainPanel.startTime), 1000)));
-            writer.append(",");
-            writer.append(String.valueOf(data));
-            writer.append(",\n");
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-}
\ No newline at end of file
+}
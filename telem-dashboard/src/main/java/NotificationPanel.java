@@ -100,6 +100,24 @@ public class NotificationPanel extends JPanel {
         return createChip(status, channel, text);
     }
 
+    // Run r on the EDT with the next UI tick, from any thread. Everything queued between two ticks runs in one
+    // batch, in order, instead of an invokeLater each. The queue is bounded and takes a short lock; if it is full
+    // the work is dropped and counted, so nothing that must not be lost (e.g. alarm state) should go through here.
+    public void later(Runnable r) {
+        if (!pending.offer(r)) droppedLater.incrementAndGet();
+    }
+
+    private static final int PENDING_CAPACITY = 4096;
+    private final java.util.concurrent.ArrayBlockingQueue<Runnable> pending =
+            new java.util.concurrent.ArrayBlockingQueue<>(PENDING_CAPACITY);
+    private final java.util.concurrent.atomic.AtomicLong droppedLater = new java.util.concurrent.atomic.AtomicLong();
+
+    private void runPending() {
+        for (int n = pending.size(); n > 0; n--) pending.poll().run();   // not what arrives meanwhile
+        long dropped = droppedLater.getAndSet(0);
+        if (dropped > 0) post(Status.WARNING, Channel.TELEMETRY, dropped + " notifications dropped, too many at once");
+    }
+
     // Helper to add an existing Entry back into the UI
     private void rePostEntry(Entry e) {
         if (e.posted) return;
@@ -178,6 +196,7 @@ public class NotificationPanel extends JPanel {
     //The panel holding all the notifications
     public NotificationPanel() {
         super(new BorderLayout(0, 6));
+        UiTick.add(this::runPending);
         setPreferredSize(new Dimension(260, 0));
 
         JPanel stacked = new JPanel();
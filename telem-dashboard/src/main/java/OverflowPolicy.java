@@ -0,0 +1,6 @@
+// What a bounded queue does when a producer finds it full
+public enum OverflowPolicy {
+    DROP_OLDEST,    // evict the oldest queued item to make room. Freshest data wins
+    DROP_NEWEST,    // refuse the new item. Whatever is queued goes out first
+    BLOCK           // wait for room. Never use from the EDT
+}
@@ -1,64 +1,170 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.function.Function;
 
 //Used by TelemetryLookup to instantiate its records from CSV rows.
+//
+// binder(recordClass, header, injected) compiles, once per record class and header, a single MethodHandle that
+// takes the row's values (String[]) and the injected values (Object[]) and calls the canonical constructor:
+// each component is either a column read at a fixed index or an injected slot, through its parser. Per row that
+// is one handle call with no name lookups, no reflection and no boxing of primitive components.
+// Supported component types: int, long, double, boolean (true/false/1/0), String, enums (by constant name),
+// and the boxed primitives.
 public class RecordFactory {
-    private static final Map<Class<?>, Constructor<?>> constructorCache = new HashMap<>();
-    private static final Map<Class<?>, RecordComponent[]> componentCache = new HashMap<>();
 
-    @SuppressWarnings("unchecked")
-    public static <T> T createRecord(Class<T> recordClass,
-                                     Function<String, String> getter,
-                                     Map<String, Object> injectedValues) {
+    // Per record class: component names and types, and the canonical constructor as a MethodHandle
+    private record Shape(RecordComponent[] components, MethodHandle ctor) {}
+
+    private static final ClassValue<Shape> shapes = new ClassValue<>() {
+        @Override
+        protected Shape computeValue(Class<?> cls) {
+            if (!cls.isRecord()) throw new IllegalArgumentException(cls.getName() + " is not a record");
+            RecordComponent[] components = cls.getRecordComponents();
+            Class<?>[] paramTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+            try {
+                Constructor<?> c = cls.getDeclaredConstructor(paramTypes);
+                c.setAccessible(true);
+                return new Shape(components, LOOKUP.unreflectConstructor(c));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("No canonical constructor for " + cls.getName(), e);
+            }
+        }
+    };
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle STRING_AT = MethodHandles.arrayElementGetter(String[].class);
+    private static final MethodHandle OBJECT_AT = MethodHandles.arrayElementGetter(Object[].class);
+    private static final MethodHandle PARSE_INT, PARSE_LONG, PARSE_DOUBLE, PARSE_BOOLEAN, PARSE_ENUM;
+    static {
         try {
-            // Cache metadata for performance
-            RecordComponent[] components = componentCache.computeIfAbsent(
-                recordClass, Class::getRecordComponents
-            );
-            Constructor<?> ctor = constructorCache.computeIfAbsent(
-                recordClass,
-                cls -> {
-                    try {
-                        Class<?>[] paramTypes = Arrays.stream(cls.getRecordComponents())
-                                                      .map(RecordComponent::getType)
-                                                      .toArray(Class<?>[]::new);
-                        return cls.getDeclaredConstructor(paramTypes);
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            );
+            PARSE_INT = LOOKUP.findStatic(Integer.class, "parseInt", MethodType.methodType(int.class, String.class));
+            PARSE_LONG = LOOKUP.findStatic(Long.class, "parseLong", MethodType.methodType(long.class, String.class));
+            PARSE_DOUBLE = LOOKUP.findStatic(Double.class, "parseDouble", MethodType.methodType(double.class, String.class));
+            PARSE_BOOLEAN = LOOKUP.findStatic(RecordFactory.class, "parseBoolean",
+                    MethodType.methodType(boolean.class, String.class));
+            PARSE_ENUM = LOOKUP.findStatic(RecordFactory.class, "parseEnum",
+                    MethodType.methodType(Enum.class, Class.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
-            Object[] args = new Object[components.length];
-            for (int i = 0; i < components.length; i++) {
-                String name = components[i].getName();
-                Class<?> type = components[i].getType();
+    // A compiled row -> record constructor for one record class and one column layout
+    public static final class Binder<T> {
+        private final Class<T> recordClass;
+        private final MethodHandle bound;   // (String[] row, Object[] injected) Object
+        private final int columnsNeeded;    // row must be at least this long
+        private final int injectedCount;
+
+        private Binder(Class<T> recordClass, MethodHandle bound, int columnsNeeded, int injectedCount) {
+            this.recordClass = recordClass;
+            this.bound = bound;
+            this.columnsNeeded = columnsNeeded;
+            this.injectedCount = injectedCount;
+        }
 
-                // Prefer injected values
-                if (injectedValues.containsKey(name)) {
-                    args[i] = injectedValues.get(name);
-                } else {
-                    String raw = getter.apply(name);
-                    if (raw == null) {
-                        throw new IllegalArgumentException(
-                            "Missing value for field " + name + " in " + recordClass.getSimpleName()
-                        );
-                    }
-                    if (type == int.class || type == Integer.class) {
-                        args[i] = Integer.parseInt(raw);
-                    } else if (type == String.class) {
-                        args[i] = raw;
-                    } else {
-                        throw new IllegalArgumentException(
-                            "Unsupported field type: " + type.getName()
-                        );
-                    }
+        // injected: values for the injected components, in the order their names were given to binder()
+        public T create(String[] row, Object... injected) {
+            if (row.length < columnsNeeded) {
+                throw new IllegalArgumentException("Row has " + row.length + " values, "
+                        + recordClass.getSimpleName() + " needs " + columnsNeeded);
+            }
+            if (injected.length != injectedCount) {
+                throw new IllegalArgumentException(recordClass.getSimpleName() + " takes " + injectedCount
+                        + " injected values, got " + injected.length);
+            }
+            try {
+                return recordClass.cast((Object) bound.invokeExact(row, injected));
+            } catch (Throwable t) {
+                throw new RuntimeException("Failed to create " + recordClass.getSimpleName(), t);
+            }
+        }
+    }
+
+    // header: column names in row order. injectedNames: components that are not read from the row
+    public static <T> Binder<T> binder(Class<T> recordClass, List<String> header, List<String> injectedNames) {
+        Shape shape = shapes.get(recordClass);
+        RecordComponent[] components = shape.components();
+        MethodHandle[] filters = new MethodHandle[components.length];
+        int[] reorder = new int[components.length];
+        int columnsNeeded = 0;
+        for (int i = 0; i < components.length; i++) {
+            String name = components[i].getName();
+            Class<?> type = components[i].getType();
+            int slot = injectedNames.indexOf(name);
+            if (slot >= 0) {
+                // (Object[]) type, unboxing or casting the injected value
+                filters[i] = MethodHandles.insertArguments(OBJECT_AT, 1, slot)
+                        .asType(MethodType.methodType(type, Object[].class));
+                reorder[i] = 1;
+            } else {
+                int col = header.indexOf(name);
+                if (col < 0) {
+                    throw new IllegalArgumentException(
+                        "Missing value for field " + name + " in " + recordClass.getSimpleName()
+                    );
                 }
+                filters[i] = MethodHandles.filterReturnValue(MethodHandles.insertArguments(STRING_AT, 1, col), parser(type));
+                reorder[i] = 0;
+                columnsNeeded = Math.max(columnsNeeded, col + 1);
+            }
+        }
+        MethodHandle bound = MethodHandles.filterArguments(shape.ctor(), 0, filters);
+        bound = MethodHandles.permuteArguments(bound,
+                MethodType.methodType(recordClass, String[].class, Object[].class), reorder);
+        bound = bound.asType(MethodType.methodType(Object.class, String[].class, Object[].class));
+        return new Binder<>(recordClass, bound, columnsNeeded, injectedNames.size());
+    }
+
+    // (String) type for one component type
+    private static MethodHandle parser(Class<?> type) {
+        MethodHandle p;
+        if (type == int.class || type == Integer.class) p = PARSE_INT;
+        else if (type == long.class || type == Long.class) p = PARSE_LONG;
+        else if (type == double.class || type == Double.class) p = PARSE_DOUBLE;
+        else if (type == boolean.class || type == Boolean.class) p = PARSE_BOOLEAN;
+        else if (type == String.class) return MethodHandles.identity(String.class);
+        else if (type.isEnum()) p = PARSE_ENUM.bindTo(type);
+        else throw new IllegalArgumentException("Unsupported field type: " + type.getName());
+        return p.asType(MethodType.methodType(type, String.class));
+    }
+
+    private static boolean parseBoolean(String raw) {
+        return switch (raw) {
+            case "true", "TRUE", "True", "1" -> true;
+            case "false", "FALSE", "False", "0" -> false;
+            default -> throw new IllegalArgumentException("Not a boolean: " + raw);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Enum<?> parseEnum(Class type, String raw) {
+        return Enum.valueOf(type, raw);
+    }
+
+    // One-off construction by field name. Loading many rows should use a binder instead
+    public static <T> T createRecord(Class<T> recordClass,
+                                     Function<String, String> getter,
+                                     Map<String, Object> injectedValues) {
+        RecordComponent[] components = shapes.get(recordClass).components();
+        List<String> header = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (RecordComponent c : components) {
+            if (injectedValues.containsKey(c.getName())) continue;
+            String raw = getter.apply(c.getName());
+            if (raw == null) {
+                throw new IllegalArgumentException(
+                    "Missing value for field " + c.getName() + " in " + recordClass.getSimpleName()
+                );
             }
-            return (T) ctor.newInstance(args);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create " + recordClass.getSimpleName(), e);
+            header.add(c.getName());
+            values.add(raw);
         }
+        List<String> injectedNames = new ArrayList<>(injectedValues.keySet());
+        Object[] injected = injectedNames.stream().map(injectedValues::get).toArray();
+        return binder(recordClass, header, injectedNames).create(values.toArray(new String[0]), injected);
     }
 }
@@ -0,0 +1,80 @@
+import java.awt.Frame;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import org.jfree.chart.ChartPanel;
+
+// Redraws charts at most FPS times a second. Appending samples never notifies anything (RingXYDataset series
+// don't fire); the UI tick only marks the charts whose series got new points, and each frame fires one dataset
+// change per dirty chart, which is what makes JFreeChart re-render it. So render cost follows the frame rate,
+// not how often sensors report.
+// There is no timer of its own: the UI tick calls tick() right after draining the samples, and every tick that
+// a frame is due on renders, so new points are drawn on the tick that brought them in. FPS above UiTick.HZ
+// gives one frame per tick.
+// A chart that isn't on screen (hidden, in a minimised or closed window, or scrolled out of view) stays dirty
+// and isn't rendered until it is visible again, when it catches up in one frame.
+//
+// Strip charts are advanced every frame: they always take in their samples, and draw only while on screen.
+//
+// Rate comes from -Dtelem.render.fps (default 30, 1-120), at most the UI tick rate. EDT only.
+public final class RenderScheduler {
+
+    public static final int FPS = Math.max(1, Math.min(120, Integer.getInteger("telem.render.fps", 30)));
+
+    private final Set<ChartPanel> dirty = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<StripChart> strips = new ArrayList<>();
+    private final long frameNanos;
+    private long lastFrame = Long.MIN_VALUE;
+
+    public RenderScheduler(int fps) {
+        // a frame is due half a tick early, so tick jitter doesn't make a 30 fps scheduler on a 30 Hz tick
+        // skip every other one
+        frameNanos = 1_000_000_000L / Math.max(1, fps) - 500_000_000L / UiTick.HZ;
+    }
+
+    // UI tick, after the samples were drained: renders if a frame is due
+    public void tick() {
+        long now = System.nanoTime();
+        if (lastFrame != Long.MIN_VALUE && now - lastFrame < frameNanos) return;
+        lastFrame = now;
+        frame();
+    }
+
+    // panel's chart has new data; it is redrawn with the next frame it is visible in
+    public void markDirty(ChartPanel panel) {
+        dirty.add(panel);
+    }
+
+    public void addStrip(StripChart strip) {
+        strips.add(strip);
+    }
+
+    public void removeStrip(StripChart strip) {
+        strips.remove(strip);
+    }
+
+    void frame() {
+        for (Iterator<ChartPanel> it = dirty.iterator(); it.hasNext(); ) {
+            ChartPanel panel = it.next();
+            if (!onScreen(panel)) continue;
+            RingXYDataset dataset = (RingXYDataset) panel.getChart().getXYPlot().getDataset();
+            dataset.setPixelWidth(panel.getWidth());    // long windows are decimated to this width
+            dataset.changed();
+            it.remove();
+        }
+        long now = System.nanoTime();
+        for (StripChart strip : strips) strip.frame(now, onScreen(strip));
+    }
+
+    static boolean onScreen(JComponent c) {
+        if (!c.isShowing() || c.getVisibleRect().isEmpty()) return false;
+        // a minimised window still counts as showing
+        return !(SwingUtilities.getWindowAncestor(c) instanceof Frame f) || (f.getExtendedState() & Frame.ICONIFIED) == 0;
+    }
+}
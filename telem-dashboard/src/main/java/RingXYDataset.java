@@ -0,0 +1,431 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+// The charts' dataset: one or more Series, each the newest <capacity> points of a signal in primitive circular
+// buffers. Replaces XYSeriesCollection/XYSeries, where every point was a boxed XYDataItem and evicting the
+// oldest shifted an ArrayList. Here append and eviction are O(1), a point costs 24 bytes, and the axis bounds
+// JFreeChart asks for on every redraw are cached instead of found by walking all items.
+//
+// A series with more points than the chart has room for is shown decimated: its window is cut into buckets of
+// 2^k consecutive samples, about one per horizontal pixel, and each bucket shows only its minimum and maximum,
+// in time order. Spikes survive, and the y bounds are exactly the series' own. The bucket min/max are kept up
+// to date as points arrive (see Series.Buckets), so a frame costs O(pixels) whatever the window length.
+//
+// showHistory() switches the dataset to the last <seconds> of each series' signal from a HistoryStore instead,
+// in its 1 s / 10 s / 1 min tiers, again at about two points per pixel; showLive() switches back. A chart
+// zoomed into that span sets its visible x range (setHistoryRange()), which is queried at the tier that fits it.
+// EDT only, like the XYSeries it replaces. Changes are published with changed(), once per rendered frame.
+public final class RingXYDataset extends AbstractXYDataset implements DomainInfo, RangeInfo, XYDomainInfo, XYRangeInfo {
+
+    private static final int DEFAULT_PIXELS = 1000;
+
+    private final List<Series> series = new ArrayList<>();
+    private final List<View> views = new ArrayList<>();
+    private int pixels = DEFAULT_PIXELS;
+    private HistoryStore history;       // null: live
+    private double historySeconds;
+    private double rangeFrom = Double.NaN, rangeTo = Double.NaN;   // the x range zoomed to, NaN for the whole span
+    private HistoryStore.Aggregate aggregate;
+    private long mode = 0;              // bumped when switching, so every view is rebuilt
+
+    // What the renderer sees of one series: the series itself, or its decimated points (or its history)
+    private static final class View {
+        long version = -1;
+        long mode = -1;
+        int pixels;
+        boolean raw = true;
+        double[] xs = new double[0], ys = new double[0];
+        int size;
+        double minY, maxY;              // of xs/ys, when showing history
+    }
+
+    public RingXYDataset() {}
+
+    public RingXYDataset(Series s) {
+        series.add(s);
+        views.add(new View());
+    }
+
+    public void addSeries(Series s) {
+        series.add(s);
+        views.add(new View());
+        fireDatasetChanged();
+    }
+
+    // Width of the chart's plot, in pixels. A series is decimated to about two points per pixel
+    public void setPixelWidth(int pixels) {
+        this.pixels = (pixels > 0) ? Math.max(16, pixels) : DEFAULT_PIXELS;
+    }
+
+    // Each series' signal over the last <seconds> (0: since startup) from store. Series without a signal show
+    // nothing
+    public void showHistory(HistoryStore store, double seconds, HistoryStore.Aggregate agg) {
+        history = store;
+        historySeconds = seconds;
+        aggregate = agg;
+        rangeFrom = rangeTo = Double.NaN;
+        mode++;
+        fireDatasetChanged();
+    }
+
+    public void showLive() {
+        if (history == null) return;
+        history = null;
+        mode++;
+        fireDatasetChanged();
+    }
+
+    // History of the x range [from, to] the chart is zoomed to, queried again at the tier that fits it; NaN for
+    // the whole span again
+    public void setHistoryRange(double from, double to) {
+        if (Double.compare(from, rangeFrom) == 0 && Double.compare(to, rangeTo) == 0) return;
+        rangeFrom = from;
+        rangeTo = to;
+        mode++;
+        if (history != null) fireDatasetChanged();
+    }
+
+    public boolean isHistory() { return history != null; }
+
+    public double getHistorySeconds() { return historySeconds; }
+
+    public HistoryStore.Aggregate getAggregate() { return aggregate; }
+
+    public Series getSeries(int i) { return series.get(i); }
+
+    public boolean contains(Series s) { return series.contains(s); }
+
+    // Redraw charts on this dataset. Series don't notify by themselves, so a tick that fills many points
+    // repaints once
+    public void changed() {
+        fireDatasetChanged();
+    }
+
+    @Override public int getSeriesCount() { return series.size(); }
+    @Override public Comparable<?> getSeriesKey(int s) { return series.get(s).key; }
+    @Override public int getItemCount(int s) {
+        View v = view(s);
+        return v.raw ? series.get(s).size : v.size;
+    }
+    @Override public Number getX(int s, int item) { return getXValue(s, item); }
+    @Override public Number getY(int s, int item) { return getYValue(s, item); }
+    @Override public double getXValue(int s, int item) {
+        View v = view(s);
+        return v.raw ? series.get(s).getX(item) : v.xs[item];
+    }
+    @Override public double getYValue(int s, int item) {
+        View v = view(s);
+        return v.raw ? series.get(s).getY(item) : v.ys[item];
+    }
+    @Override public DomainOrder getDomainOrder() { return DomainOrder.ASCENDING; }
+
+    // Rebuilt when the series (or history), the width or the mode changed since the renderer last asked
+    private View view(int s) {
+        View v = views.get(s);
+        Series ser = series.get(s);
+        long version = (history == null) ? ser.version : history.version();
+        if (v.version == version && v.pixels == pixels && v.mode == mode) return v;
+        v.version = version;
+        v.pixels = pixels;
+        v.mode = mode;
+        int max = 2 * pixels;
+        v.raw = history == null && ser.size <= max;
+        if (v.raw) return v;
+        if (v.xs.length < max + 4) {
+            v.xs = new double[max + 4];
+            v.ys = new double[max + 4];
+        }
+        if (history == null) {
+            v.size = ser.decimate(max, v.xs, v.ys);
+            return v;
+        }
+        double to = history.newestSeconds();
+        double from = (historySeconds > 0) ? to - historySeconds : 0;
+        if (!Double.isNaN(rangeFrom)) {
+            from = rangeFrom;
+            to = rangeTo;
+        }
+        v.size = (ser.signal < 0) ? 0 : history.query(ser.signal, from, to, max, aggregate, v.xs, v.ys);
+        v.minY = Double.POSITIVE_INFINITY;
+        v.maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < v.size; i++) {
+            v.minY = Math.min(v.minY, v.ys[i]);
+            v.maxY = Math.max(v.maxY, v.ys[i]);
+        }
+        return v;
+    }
+
+    /* ===== bounds, from each series' cached values (or its history view) ===== */
+
+    @Override public double getDomainLowerBound(boolean includeInterval) { return bound(true, false); }
+    @Override public double getDomainUpperBound(boolean includeInterval) { return bound(true, true); }
+    @Override public double getRangeLowerBound(boolean includeInterval) { return bound(false, false); }
+    @Override public double getRangeUpperBound(boolean includeInterval) { return bound(false, true); }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        return bounds(all(), true);
+    }
+
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        return bounds(all(), false);
+    }
+
+    // XYDomainInfo and XYRangeInfo declare these with a raw List, which an override has to repeat
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        return bounds(visible(visibleSeriesKeys), true);
+    }
+
+    // xRange is ignored: the charts always show a series' whole window, so its y bounds are the cached ones
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        return bounds(visible(visibleSeriesKeys), false);
+    }
+
+    private List<Integer> all() {
+        List<Integer> out = new ArrayList<>(series.size());
+        for (int s = 0; s < series.size(); s++) out.add(s);
+        return out;
+    }
+
+    private List<Integer> visible(List<?> keys) {
+        List<Integer> out = new ArrayList<>(keys.size());
+        for (int s = 0; s < series.size(); s++) if (keys.contains(series.get(s).key)) out.add(s);
+        return out;
+    }
+
+    private double bound(boolean domain, boolean upper) {
+        Range r = bounds(all(), domain);
+        return (r == null) ? Double.NaN : upper ? r.getUpperBound() : r.getLowerBound();
+    }
+
+    private Range bounds(List<Integer> list, boolean domain) {
+        double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+        for (int i : list) {
+            if (history != null) {
+                View v = view(i);
+                if (v.size == 0) continue;
+                lo = Math.min(lo, domain ? v.xs[0] : v.minY);
+                hi = Math.max(hi, domain ? v.xs[v.size - 1] : v.maxY);
+                continue;
+            }
+            Series s = series.get(i);
+            if (s.size == 0) continue;
+            lo = Math.min(lo, domain ? s.minX() : s.minY());
+            hi = Math.max(hi, domain ? s.maxX() : s.maxY());
+        }
+        return (lo > hi) ? null : new Range(lo, hi);
+    }
+
+    // The newest <capacity> points of one signal. x is the receive time, which doesn't go backwards for a signal,
+    // so the x bounds are the first and last point. The y bounds come from two monotonic deques (ring indices of
+    // the points that can still be the window's min / max), updated in O(1) amortised per point.
+    // Arrays start small and grow to capacity, so a 100k window costs nothing until it fills.
+    public static final class Series {
+        private static final int INITIAL = 16;
+
+        private final Comparable<?> key;
+        private final int signal;   // packed key of the signal, for showHistory; -1 if none
+        private int capacity;
+        private double[] xs, ys;
+        private int head = 0;       // ring index of the oldest point
+        private int size = 0;
+        private int[] minQ, maxQ;   // ring indices, oldest first; ys strictly increasing / decreasing along each
+        private int minHead, minSize, maxHead, maxSize;
+        private long added = 0;     // points ever added; the oldest point is number added - size
+        private long version = 0;   // bumped on every change, for the datasets' views
+        private Buckets buckets;    // min/max per 2^shift points, for the last decimation asked for
+
+        public Series(Comparable<?> key, int capacity) {
+            this(key, -1, capacity);
+        }
+
+        public Series(Comparable<?> key, int signal, int capacity) {
+            this.key = key;
+            this.signal = signal;
+            this.capacity = Math.max(1, capacity);
+            allocate(Math.min(INITIAL, this.capacity));
+        }
+
+        public Comparable<?> getKey() { return key; }
+
+        public int getSignal() { return signal; }
+
+        public int getItemCount() { return size; }
+
+        public int getCapacity() { return capacity; }
+
+        public double getX(int item) { return xs[slot(item)]; }
+
+        public double getY(int item) { return ys[slot(item)]; }
+
+        public double minX() { return xs[head]; }
+
+        public double maxX() { return xs[slot(size - 1)]; }
+
+        public double minY() { return ys[minQ[minHead]]; }
+
+        public double maxY() { return ys[maxQ[maxHead]]; }
+
+        public void add(double x, double y) {
+            append(x, y);
+            if (buckets != null) buckets.add(added, x, y);
+            added++;
+            version++;
+        }
+
+        private void append(double x, double y) {
+            if (size == xs.length && size < capacity) grow(Math.min(capacity, size * 2));
+            if (size == capacity) evictOldest();
+            int i = slot(size);
+            xs[i] = x;
+            ys[i] = y;
+            size++;
+            int n = xs.length;
+            // drop points that can no longer be the min (or max) now that a lower (higher) one came after them
+            while (minSize > 0 && ys[minQ[(minHead + minSize - 1) % n]] >= y) minSize--;
+            minQ[(minHead + minSize++) % n] = i;
+            while (maxSize > 0 && ys[maxQ[(maxHead + maxSize - 1) % n]] <= y) maxSize--;
+            maxQ[(maxHead + maxSize++) % n] = i;
+        }
+
+        // Keep the newest min(size, capacity) points
+        public void setCapacity(int capacity) {
+            capacity = Math.max(1, capacity);
+            if (capacity == this.capacity) return;
+            this.capacity = capacity;
+            while (size > capacity) evictOldest();
+            if (xs.length > capacity) grow(capacity);   // shrinks
+            buckets = null;                             // sized for the old capacity
+            version++;
+        }
+
+        public void clear() {
+            empty();
+            buckets = null;
+            version++;
+        }
+
+        private void empty() {
+            head = size = 0;
+            minHead = minSize = maxHead = maxSize = 0;
+        }
+
+        private int slot(int item) {
+            int i = head + item;
+            return (i >= xs.length) ? i - xs.length : i;
+        }
+
+        private void evictOldest() {
+            int n = xs.length;
+            if (minQ[minHead] == head) { minHead = (minHead + 1) % n; minSize--; }
+            if (maxQ[maxHead] == head) { maxHead = (maxHead + 1) % n; maxSize--; }
+            head = (head + 1 == n) ? 0 : head + 1;
+            size--;
+        }
+
+        private void allocate(int n) {
+            xs = new double[n];
+            ys = new double[n];
+            minQ = new int[n];
+            maxQ = new int[n];
+        }
+
+        // New arrays of length n, points moved to the front in order and the deques rebuilt
+        private void grow(int n) {
+            double[] oldX = xs, oldY = ys;
+            int oldHead = head, count = size;
+            allocate(n);
+            empty();
+            for (int k = 0; k < count; k++) {
+                int i = (oldHead + k) % oldX.length;
+                append(oldX[i], oldY[i]);
+            }
+        }
+
+        // The window as at most about maxPoints points, into xs/ys (length >= maxPoints + 4): each bucket's min
+        // and max in time order. Buckets are aligned to point numbers, so only the oldest one can be cut by
+        // eviction; it is recomputed from the points still in the window. Returns the number of points.
+        int decimate(int maxPoints, double[] outX, double[] outY) {
+            int shift = 0;
+            while ((size >> shift) + 2 > maxPoints / 2) shift++;
+            if (buckets == null || buckets.shift != shift) buckets = new Buckets(shift, capacity, this);
+            long first = added - size;
+            long firstId = first >>> shift, lastId = (added - 1) >>> shift;
+            int n = 0;
+            // oldest bucket, possibly partial
+            long end = Math.min(added, (firstId + 1) << shift);
+            int lo = 0, hi = 0;
+            for (int k = 1; k < (int) (end - first); k++) {
+                if (getY(k) < getY(lo)) lo = k;
+                if (getY(k) > getY(hi)) hi = k;
+            }
+            n = emit(outX, outY, n, getX(lo), getY(lo), getX(hi), getY(hi), lo == hi);
+            for (long id = firstId + 1; id <= lastId; id++) {
+                int b = buckets.slot(id);
+                n = emit(outX, outY, n, buckets.minX[b], buckets.minY[b], buckets.maxX[b], buckets.maxY[b],
+                        buckets.minX[b] == buckets.maxX[b] && buckets.minY[b] == buckets.maxY[b]);
+            }
+            return n;
+        }
+
+        private static int emit(double[] xs, double[] ys, int n, double x1, double y1, double x2, double y2, boolean same) {
+            if (same) {
+                xs[n] = x1; ys[n++] = y1;
+            } else if (x1 <= x2) {
+                xs[n] = x1; ys[n++] = y1;
+                xs[n] = x2; ys[n++] = y2;
+            } else {
+                xs[n] = x2; ys[n++] = y2;
+                xs[n] = x1; ys[n++] = y1;
+            }
+            return n;
+        }
+
+        // Min and max (with their x) of every run of 2^shift points, by point number, for the buckets that can
+        // still be in the window. Kept up to date by add(): one compare-and-store per point.
+        private static final class Buckets {
+            final int shift;
+            final double[] minX, minY, maxX, maxY;
+            long lastId = -1;       // newest bucket; the ring holds lastId - length + 1 .. lastId
+
+            Buckets(int shift, int capacity, Series s) {
+                this.shift = shift;
+                int n = (capacity >> shift) + 2;
+                minX = new double[n]; minY = new double[n];
+                maxX = new double[n]; maxY = new double[n];
+                long first = s.added - s.size;
+                for (int k = 0; k < s.size; k++) add(first + k, s.getX(k), s.getY(k));
+            }
+
+            int slot(long id) {
+                return (int) (id % minX.length);
+            }
+
+            void add(long seq, double x, double y) {
+                long id = seq >>> shift;
+                int b = slot(id);
+                if (id != lastId) {
+                    lastId = id;
+                    minX[b] = maxX[b] = x;
+                    minY[b] = maxY[b] = y;
+                    return;
+                }
+                if (y < minY[b]) { minY[b] = y; minX[b] = x; }
+                if (y > maxY[b]) { maxY[b] = y; maxX[b] = x; }
+            }
+        }
+    }
+}
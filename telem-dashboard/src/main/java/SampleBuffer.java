@@ -0,0 +1,155 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+// Decoded samples on their way to the charts and the CSV files: one small ring per signal, kept as primitive
+// arrays. A decoder appends with two array stores and a release store; it never blocks, locks or allocates.
+// Readers each hold a Cursor and drain at their own pace. A reader that falls more than a ring behind loses the
+// oldest samples, and the loss is counted on its cursor.
+//
+// Signals are addressed by packed key (TelemetryLookup.pack), which doesn't change when the schema is reloaded,
+// so buffered samples stay with their signal across a reload. A signal's ring is created by open() and then
+// lives as long as the buffer; add() for a key that was never opened is refused.
+//
+// Each signal must have one writer at a time. The decode paths guarantee that: there is one decoder thread,
+// or with sharding every signal's node maps to a single shard.
+public final class SampleBuffer {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    public interface Sink {
+        void onSample(int key, long rxNanos, int value);
+    }
+
+    private static final VarHandle RINGS = MethodHandles.arrayElementVarHandle(Ring[].class);
+    private static final VarHandle WRITTEN;
+    static {
+        try {
+            WRITTEN = MethodHandles.lookup().findVarHandle(Ring.class, "written", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final class Ring {
+        final long[] nanos;
+        final int[] values;
+        long written = 0;       // samples ever added; written by the one writer, read with acquire
+
+        Ring(int cap) {
+            nanos = new long[cap];
+            values = new int[cap];
+        }
+    }
+
+    private final Ring[] rings;             // by key, null until opened
+    private final int mask;
+    private volatile int[] keys = new int[0];   // opened keys, ascending
+
+    public SampleBuffer(int keySpace, int capacity) {
+        int cap = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(capacity, 2) - 1));
+        this.rings = new Ring[keySpace];
+        this.mask = cap - 1;
+    }
+
+    public int keySpace() { return rings.length; }
+
+    public int capacity() { return mask + 1; }
+
+    // Creates the key's ring if it has none. Call before the key's samples can arrive
+    public synchronized void open(int key) {
+        if (rings[key] != null) return;
+        RINGS.setRelease(rings, key, new Ring(mask + 1));
+        int[] k = Arrays.copyOf(keys, keys.length + 1);
+        k[k.length - 1] = key;
+        Arrays.sort(k);
+        keys = k;
+    }
+
+    // opened keys, ascending. Shared, don't modify
+    public int[] keys() { return keys; }
+
+    public boolean isOpen(int key) { return RINGS.getAcquire(rings, key) != null; }
+
+    public long written(int key) {
+        Ring r = (Ring) RINGS.getAcquire(rings, key);
+        return (r == null) ? 0 : (long) WRITTEN.getAcquire(r);
+    }
+
+    // Writer side. false if the key was never opened
+    public boolean add(int key, int value, long rxNanos) {
+        Ring r = (Ring) RINGS.getAcquire(rings, key);
+        if (r == null) return false;
+        long w = r.written;
+        int i = (int) w & mask;
+        r.nanos[i] = rxNanos;
+        r.values[i] = value;
+        WRITTEN.setRelease(r, w + 1);
+        return true;
+    }
+
+    public Cursor cursor() {
+        return new Cursor(this);
+    }
+
+    // Hands the key's unread samples to sink, oldest first, and returns how many. With keepLast > 0 only the
+    // newest keepLast are handed over and the rest are skipped (not counted as lost): a chart that shows 100
+    // points has no use for the 3000 that came in since the last tick.
+    public int drain(Cursor c, int key, int keepLast, Sink sink) {
+        Ring r = (Ring) RINGS.getAcquire(rings, key);
+        if (r == null) return 0;
+        long end = (long) WRITTEN.getAcquire(r);
+        long from = c.next[key];
+        if (end == from) return 0;
+        int cap = mask + 1;
+        if (end - from > cap) {
+            c.lost += end - from - cap;
+            from = end - cap;
+        }
+        if (keepLast > 0 && end - from > keepLast) from = end - keepLast;
+
+        int n = (int) (end - from);
+        for (int k = 0; k < n; k++) {
+            int i = (int) (from + k) & mask;
+            c.nanos[k] = r.nanos[i];
+            c.values[k] = r.values[i];
+        }
+        VarHandle.loadLoadFence();
+        // the writer may have lapped us while we copied; its next sample overwrites the slot of seq end2 - cap
+        long end2 = (long) WRITTEN.getAcquire(r);
+        long firstGood = Math.max(from, end2 - cap + 1);
+        if (firstGood > from) c.lost += Math.min(firstGood, end) - from;
+        c.next[key] = end;
+        int delivered = 0;
+        for (long seq = firstGood; seq < end; seq++) {
+            int k = (int) (seq - from);
+            sink.onSample(key, c.nanos[k], c.values[k]);
+            delivered++;
+        }
+        return delivered;
+    }
+
+    // Every opened key in ascending order
+    public int drainAll(Cursor c, int keepLast, Sink sink) {
+        int total = 0;
+        for (int key : keys) total += drain(c, key, keepLast, sink);
+        return total;
+    }
+
+    // One reader's position in every ring. Use a cursor from one thread only
+    public static final class Cursor {
+        private final long[] next;
+        private final long[] nanos;
+        private final int[] values;
+        private long lost = 0;
+
+        private Cursor(SampleBuffer b) {
+            next = new long[b.rings.length];
+            for (int key : b.keys) next[key] = b.written(key);    // start at "now"; rings opened later start at 0
+            nanos = new long[b.capacity()];
+            values = new int[b.capacity()];
+        }
+
+        public long lost() { return lost; }
+    }
+}
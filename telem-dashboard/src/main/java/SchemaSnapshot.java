@@ -0,0 +1,183 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+// Binary copy of a TelemetryLookup's records, so startup reads a few fixed-size fields from a memory-mapped
+// file instead of parsing telemetry.csv. The snapshot records a hash of the CSV bytes it was built from;
+// load() only trusts it when the CSV still hashes the same, and otherwise parses the CSV and rewrites it.
+//
+// Layout (big endian): magic, version, csv hash (8 bytes), node/frame/signal counts, then the records in key
+// order, strings as u16 length + UTF-8. Ends with a CRC-32C of everything before it.
+public final class SchemaSnapshot {
+
+    public static final Path DEFAULT_PATH = Path.of(System.getProperty("telem.schema.cache", "cache/telemetry.schema"));
+
+    private static final int MAGIC = 0x544C4D53;     // "TLMS"
+    private static final int VERSION = 1;            // bump when the layout or the records change
+
+    private SchemaSnapshot() {}
+
+    // The schema in csv, from the snapshot when it matches, else parsed (and the snapshot refreshed)
+    public static TelemetryLookup load(InputStream csv, Path snapshot) throws IOException {
+        byte[] bytes = csv.readAllBytes();
+        long hash = hash(bytes);
+        TelemetryLookup cached = read(snapshot, hash);
+        if (cached != null) return cached;
+        TelemetryLookup parsed = new TelemetryLookup(new ByteArrayInputStream(bytes));
+        try {
+            write(parsed, snapshot, hash);
+        } catch (IOException e) {
+            Log.warn("schema", "Could not write schema snapshot %s: %s", snapshot, e.getMessage());
+        }
+        return parsed;
+    }
+
+    // null when there is no snapshot, it was built from a different CSV or an older layout, or it is damaged
+    public static TelemetryLookup read(Path snapshot, long csvHash) {
+        if (!Files.isRegularFile(snapshot)) return null;
+        try (FileChannel ch = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < 32 || size > Integer.MAX_VALUE) return null;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                Log.info("schema", "Schema snapshot %s has an old layout, reparsing the CSV", snapshot);
+                return null;
+            }
+            if (buf.getLong() != csvHash) {
+                Log.info("schema", "telemetry.csv changed since %s was written, reparsing", snapshot);
+                return null;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buf.duplicate().position(0).limit((int) size - 4));
+            if ((int) crc.getValue() != buf.getInt((int) size - 4)) {
+                Log.warn("schema", "Schema snapshot %s is damaged, reparsing the CSV", snapshot);
+                return null;
+            }
+
+            int nodes = buf.getInt(), frames = buf.getInt(), signals = buf.getInt();
+            Map<Integer, TelemetryLookup.Node> nodesById = new HashMap<>(nodes * 2);
+            Map<TelemetryLookup.FrameKey, TelemetryLookup.CANFrame> framesById = new HashMap<>(frames * 2);
+            Map<TelemetryLookup.DataKey, TelemetryLookup.DataInfo> dataById = new HashMap<>(signals * 2);
+            for (int i = 0; i < nodes; i++) {
+                int id = buf.getInt();
+                nodesById.put(id, new TelemetryLookup.Node(id, string(buf)));
+            }
+            for (int i = 0; i < frames; i++) {
+                int node = buf.getInt(), frame = buf.getInt();
+                framesById.put(new TelemetryLookup.FrameKey(node, frame),
+                        new TelemetryLookup.CANFrame(frame, buf.getInt(), buf.getInt()));
+            }
+            for (int i = 0; i < signals; i++) {
+                int node = buf.getInt(), frame = buf.getInt(), data = buf.getInt();
+                String name = string(buf);
+                dataById.put(new TelemetryLookup.DataKey(node, frame, data), new TelemetryLookup.DataInfo(data, name,
+                        buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt()));
+            }
+            return new TelemetryLookup(nodesById, framesById, dataById);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            Log.warn("schema", "Schema snapshot %s unreadable (%s), reparsing the CSV", snapshot, e);
+            return null;
+        }
+    }
+
+    public static void write(TelemetryLookup lookup, Path snapshot, long csvHash) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+        buf.putInt(MAGIC).putInt(VERSION).putLong(csvHash);
+        buf.putInt(lookup.nodesById().size()).putInt(lookup.framesById().size()).putInt(lookup.dataById().size());
+
+        for (var e : new TreeMap<>(lookup.nodesById()).entrySet()) {
+            buf = ensure(buf, 4);
+            buf.putInt(e.getKey());
+            buf = putString(buf, e.getValue().nodeName());
+        }
+        var frames = new TreeMap<TelemetryLookup.FrameKey, TelemetryLookup.CANFrame>(
+                Comparator.comparingInt(TelemetryLookup.FrameKey::nodeId)
+                          .thenComparingInt(TelemetryLookup.FrameKey::frameIndex));
+        frames.putAll(lookup.framesById());
+        for (var e : frames.entrySet()) {
+            buf = ensure(buf, 16);
+            buf.putInt(e.getKey().nodeId()).putInt(e.getKey().frameIndex())
+               .putInt(e.getValue().dataTimeout()).putInt(e.getValue().numData());
+        }
+        var data = new TreeMap<TelemetryLookup.DataKey, TelemetryLookup.DataInfo>(
+                Comparator.comparingInt(TelemetryLookup.DataKey::nodeId)
+                          .thenComparingInt(TelemetryLookup.DataKey::frameIndex)
+                          .thenComparingInt(TelemetryLookup.DataKey::dataIndex));
+        data.putAll(lookup.dataById());
+        for (var e : data.entrySet()) {
+            TelemetryLookup.DataKey k = e.getKey();
+            TelemetryLookup.DataInfo d = e.getValue();
+            buf = ensure(buf, 12);
+            buf.putInt(k.nodeId()).putInt(k.frameIndex()).putInt(k.dataIndex());
+            buf = putString(buf, d.dataName());
+            buf = ensure(buf, 28);
+            buf.putInt(d.bitLength()).putInt(d.min()).putInt(d.max()).putInt(d.minWarning()).putInt(d.maxWarning())
+               .putInt(d.minCritical()).putInt(d.maxCritical());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), 0, buf.position());
+        buf = ensure(buf, 4);
+        buf.putInt((int) crc.getValue());
+
+        // write beside it and move into place, so a reader never maps a half written file
+        Path dir = snapshot.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, snapshot.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, java.util.Arrays.copyOf(buf.array(), buf.position()));
+            try {
+                Files.move(tmp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // CRC-32C and CRC-32 of the CSV side by side. Two different polynomials make a 64 bit check, and both are
+    // intrinsics, where a cold SHA-256 took longer than reading the whole snapshot.
+    public static long hash(byte[] csv) {
+        CRC32C c = new CRC32C();
+        c.update(csv);
+        CRC32 d = new CRC32();
+        d.update(csv);
+        return (c.getValue() << 32) | d.getValue();
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buf, int more) {
+        if (buf.remaining() >= more) return buf;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + more));
+        return bigger.put(buf.flip());
+    }
+
+    private static ByteBuffer putString(ByteBuffer buf, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (b.length > 0xFFFF) throw new IllegalArgumentException("name too long: " + s.substring(0, 40) + "...");
+        buf = ensure(buf, 2 + b.length);
+        return buf.putShort((short) b.length).put(b);
+    }
+
+    private static String string(ByteBuffer buf) {
+        int len = Short.toUnsignedInt(buf.getShort());
+        byte[] b = new byte[len];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -46,7 +46,19 @@ public class SensorSelectionPanel extends JPanel {
     public SensorSelectionPanel(TelemetryLookup lookup) {
     // Let rows grow to fit however many datapoints you have
     setLayout(new GridLayout(0, 1));
+    addRows(lookup);
+}
+
+    // Rebuild the rows for a reloaded schema (EDT)
+    public void reload(TelemetryLookup lookup) {
+        removeAll();
+        sensorStatus.clear();
+        addRows(lookup);
+        revalidate();
+        repaint();
+    }
 
+    private void addRows(TelemetryLookup lookup) {
     // One flat iteration over all telemetry channels
     for (TelemetryLookup.DataKey key : lookup.allDataKeys()) {
         // Resolve metadata and a friendly title
@@ -81,29 +93,31 @@ public class SensorSelectionPanel extends JPanel {
         final int dpIdx    = key.dataIndex();
         final String nodeName = lookup.getNodeById(nodeId).map(TelemetryLookup.Node::nodeName).orElse("node" + nodeId);
 
-        DragSource ds = new DragSource();
-        ds.createDefaultDragGestureRecognizer(sensorLabel, DnDConstants.ACTION_COPY, dge -> {
-            try {
-                // Render the miniElement as a drag image (optional but nice)
-                BufferedImage img = new BufferedImage(
-                    miniElement.getWidth(), miniElement.getHeight(), BufferedImage.TYPE_INT_ARGB
-                );
-                Graphics2D g2 = img.createGraphics();
-                miniElement.printAll(g2);
-                g2.dispose();
-
-                Image dragImage = Toolkit.getDefaultToolkit().createImage(img.getSource());
-                Point dragOffset = new Point(0, 0);
-
-                // Your DnD payload should carry nodeId/frameIdx/dpIdx
-                DataInfoRef ref  = new DataInfoRef(nodeName, nodeId, frameIdx, dpIdx);
-                DataInfoTransferable xfer = new DataInfoTransferable(ref);
-
-                ds.startDrag(dge, DragSource.DefaultCopyDrop, dragImage, dragOffset, xfer, new DragSourceAdapter(){});
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
-        });
+        if (!GraphicsEnvironment.isHeadless()) {   // no drag and drop without a display (benches)
+            DragSource ds = new DragSource();
+            ds.createDefaultDragGestureRecognizer(sensorLabel, DnDConstants.ACTION_COPY, dge -> {
+                try {
+                    // Render the miniElement as a drag image (optional but nice)
+                    BufferedImage img = new BufferedImage(
+                        miniElement.getWidth(), miniElement.getHeight(), BufferedImage.TYPE_INT_ARGB
+                    );
+                    Graphics2D g2 = img.createGraphics();
+                    miniElement.printAll(g2);
+                    g2.dispose();
+
+                    Image dragImage = Toolkit.getDefaultToolkit().createImage(img.getSource());
+                    Point dragOffset = new Point(0, 0);
+
+                    // Your DnD payload should carry nodeId/frameIdx/dpIdx
+                    DataInfoRef ref  = new DataInfoRef(nodeName, nodeId, frameIdx, dpIdx);
+                    DataInfoTransferable xfer = new DataInfoTransferable(ref);
+
+                    ds.startDrag(dge, DragSource.DefaultCopyDrop, dragImage, dragOffset, xfer, new DragSourceAdapter(){});
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            });
+        }
 
         // Add the new element to the panel!
         add(miniElement);
@@ -1,141 +1,322 @@
-import com.fazecast.jSerialComm.SerialPort;
 import java.io.*;
-import java.nio.ByteBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
 import java.util.function.Consumer;
 
+// SOF+checksum framing between the dashboard and a CAN_to_UART bridge. The bytes come from a Transport
+// (serial by default), so the same framing works over TCP, UDP, capture files and pipes.
 public final class SerialBridge implements AutoCloseable {
-    private final SerialPort port;
-    private final OutputStream out;
+    private final Transport transport;
     private Thread readerThread;
     private volatile boolean running = false;
 
     public SerialBridge(String portName, int baud) throws IOException {
-        this.port = SerialPort.getCommPort(portName);
-        port.setBaudRate(baud);
-        port.setNumDataBits(8);
-        port.setParity(SerialPort.NO_PARITY);
-        port.setNumStopBits(SerialPort.ONE_STOP_BIT);
-        port.setComPortTimeouts(SerialPort.TIMEOUT_NONBLOCKING, 0, 0);
-        port.setFlowControl(SerialPort.FLOW_CONTROL_DISABLED);
-        port.setDTR();
-        port.setRTS();
-        if (!port.openPort()) throw new IOException("Failed to open port " + portName);
-
-        try { Thread.sleep(2000); } catch (InterruptedException ignored) {}
-        this.out = port.getOutputStream();
+        this(portName, baud, SerialTransport.IngestMode.BLOCKING);
+    }
+
+    public SerialBridge(String portName, int baud, SerialTransport.IngestMode mode) throws IOException {
+        this(new SerialTransport(portName, baud, mode));
+    }
+
+    public SerialBridge(Transport transport) {
+        this(transport, DEFAULT_RX_CAPACITY, DEFAULT_TX_QUEUE, OverflowPolicy.DROP_NEWEST);
+    }
+
+    // rxCapacity is rounded up to a power of two. Size it to hold the worst burst after a USB stall.
+    // txQueue bounds how many outbound commands may wait for the writer, txPolicy says what happens past that.
+    public SerialBridge(Transport transport, int rxCapacity, int txQueue, OverflowPolicy txPolicy) {
+        this.transport = transport;
+        this.rx = new byte[ringCapacity(rxCapacity)];
+        this.rxMask = rx.length - 1;
+        this.txQueue = new ArrayBlockingQueue<>(txQueue);
+        this.txPolicy = txPolicy;
+        this.txBatch = new byte[txQueue * TX_FRAME_LEN];
+        startWriter();
     }
     //Optionally also start the reader
     public SerialBridge(String portName, int baud,
                         Consumer<byte[]> onMessageRecv,
                         Consumer<byte[]> onMessageInvalid) throws IOException {
-        this(portName, baud);                 // do all open/config
-        startReader(onMessageRecv, onMessageInvalid);  // kick off thread
+        this(portName, baud, SerialTransport.IngestMode.BLOCKING, FrameSink.ofPayloads(onMessageRecv, onMessageInvalid));
+    }
+
+    public SerialBridge(String portName, int baud, SerialTransport.IngestMode mode, FrameSink sink) throws IOException {
+        this(new SerialTransport(portName, baud, mode), sink);
+    }
+
+    public SerialBridge(Transport transport, FrameSink sink) {
+        this(transport);                      // do all open/config
+        startReader(sink);                    // kick off thread
+    }
+
+    public Transport transport() { return transport; }
+
+    /* ===== Link counters, safe to read from any thread (see acquireStats) ===== */
+    public long bytesRead()     { acquireStats(); return bytesRead; }
+    public long framesGood()    { acquireStats(); return framesGood; }
+    public long framesInvalid() { acquireStats(); return framesInvalid; }
+
+    // Volatile read of statsSeq. It pairs with the reader's statsSeq++ at the end of each pass, so every counter
+    // written before that increment is visible to the caller afterwards. Call before reading any counter
+    private long acquireStats() {
+        return statsSeq;
+    }
+
+    // Framing health for one link. checksumFailures, resyncSkips and discardedBytes point at the line (noise,
+    // baud mismatch, a dongle reset mid-frame). A ring high-water mark near capacity, or the decode queue and
+    // command queue overflowing, point at the host falling behind.
+    public record Stats(
+            String link,
+            long bytesRead,
+            long framesGood,
+            long checksumFailures,   // single frame checksum or batch CRC
+            long resyncSkips,        // times the parser skipped ahead looking for the next SOF
+            long discardedBytes,     // bytes skipped that way, or dropped because the ring filled without a frame
+            int ringHighWater,       // most bytes ever buffered in the receive ring
+            int ringCapacity,
+            long commandsDropped) {}
+
+    // Counters as of the reader's last pass. Each one is exact, but two of them can be one pass apart.
+    public Stats stats() {
+        acquireStats();
+        return new Stats(transport.describe(), bytesRead, framesGood, framesInvalid, resyncSkips, discardedBytes,
+                ringHighWater, rx.length, txDropped.get());
     }
 
     //Start a task for recieving messages, and calls the callback onMessageRecv
     public void startReader(Consumer<byte[]> onMessageRecv, Consumer<byte[]> onMessageInvalid) {
+        startReader(FrameSink.ofPayloads(onMessageRecv, onMessageInvalid));
+    }
+
+    //Start a task for recieving messages. Valid frames go to sink.onFrame without allocating
+    public void startReader(FrameSink sink) {
         if (running) return;
         running = true;
         readerThread = new Thread(() -> {
-            System.out.println("running recv thread");
-            try (InputStream in = port.getInputStream()) {
-                System.out.println("init success");
-                while (running) {
-                    try {
-                        receiveFrames(in, onMessageRecv, onMessageInvalid);
-                    } catch (IOException e) {
-                        if (running) System.out.println("[SerialBridge error] " + e.getMessage());
+            Log.info("link", "running recv thread (%s)", transport.describe());
+            while (running) {
+                try {
+                    // The transport sleeps inside read until bytes arrive (or its timeout passes)
+                    int got = receiveFrames(space(), sink);
+                    if (got < 0) {
+                        Log.info("link", "end of stream on %s", transport.describe());
+                        break;
                     }
-                    Thread.yield();
+                    if (got > 0) drainFrames(sink);
+                } catch (IOException e) {
+                    if (running) Log.error("link", "%s: %s", transport.describe(), e.getMessage());
                 }
-                System.out.println("reader thread exiting");
-            } catch (IOException e) {
-                if (running) System.out.println("[SerialBridge error] " + e.getMessage());
             }
+            Log.info("link", "reader thread exiting (%s)", transport.describe());
         }, "serial-reader");
         readerThread.setDaemon(true);
         readerThread.start();
     }
 
-    // Circular buffer state to recv messages
-    private static final int RX_CAP = 256;
-    private final byte[] rx = new byte[RX_CAP];
+    // Read and parse until the transport has nothing left, so a wakeup handles the whole backlog in one pass.
+    private void drainFrames(FrameSink sink) throws IOException {
+        int avail;
+        while (running && (avail = transport.available()) > 0) {
+            if (receiveFrames(avail, sink) <= 0) break;
+        }
+    }
+
+    // Circular buffer state to recv messages. Capacity is a power of two so indexing is a mask, not a %.
+    public static final int DEFAULT_RX_CAPACITY = 1 << 16;   // 64 KiB: several seconds of 115200 baud
+    private final byte[] rx;
+    private final int rxMask;
     private int head = 0;   // start of valid data
     private int len  = 0;   // bytes of valid data
+    private long lastReadNanos = 0;   // System.nanoTime() of the most recent read into the ring
+
+    // Link counters. Written only by the reader thread, published once per pass through statsSeq.
+    private long bytesRead = 0, framesGood = 0, framesInvalid = 0;
+    private long resyncSkips = 0, discardedBytes = 0;
+    private int ringHighWater = 0;
+    private volatile long statsSeq = 0;
+
+    private static final byte SOF = (byte)0xFF;
+    private static final int FRAME_AFTER_SOF = 14;           // 2 + 4 + 8
+    private static final int MIN_FRAME_TOTAL = 1 + FRAME_AFTER_SOF; // 15
+
+    // Batched frames, see CAN_to_UART/UART_Com.h. Kept in step with the firmware's BATCH_* defines.
+    private static final int BATCH_SOF = 0xFE;
+    private static final int BATCH_HEADER = 3;               // SOF + N + ~N
+    public static final int BATCH_MAX_FRAMES = 32;           // largest batch we accept (firmware sends <= 16)
+    private static final int MAX_BATCH_TOTAL = BATCH_HEADER + BATCH_MAX_FRAMES * 12 + 4;
+    private static final byte[] BATCH_MAGIC = {'B', 'A', 'T', 'C', 'H'};
+    private final CRC32C crc = new CRC32C();                 // reader thread only
 
-    private void receiveFrames(InputStream in,
-                            Consumer<byte[]> onMessageRecv,
-                            Consumer<byte[]> onMessageInvalid) throws IOException {
-        final byte SOF = (byte)0xFF;
-        final int FRAME_AFTER_SOF = 14;           // 2 + 4 + 8
-        final int MIN_FRAME_TOTAL = 1 + FRAME_AFTER_SOF; // 15
-
-        // read available bytes into ring (may wrap)
-        int avail = port.bytesAvailable();
-        if (avail > 0 && space() > 0) {
-            int tail = (head + len) % RX_CAP;
-            int toRead = Math.min(avail, space());
-            int c1 = Math.min(toRead, RX_CAP - tail);
-            int r1 = in.read(rx, tail, c1);
-            if (r1 > 0) { len += r1; toRead -= r1; }
-            if (toRead > 0) {
-                int r2 = in.read(rx, 0, Math.min(toRead, RX_CAP - len));
-                if (r2 > 0) { len += r2; }
+    // Reads up to `want` bytes into the ring (may wrap), then parses every complete frame.
+    // Returns how many bytes were read (0 if nothing arrived before the timeout, -1 at end of stream).
+    private int receiveFrames(int want, FrameSink sink) throws IOException {
+        // Bulk read straight into the ring, at most two calls when the free space wraps.
+        // The first read blocks in the transport until data arrives.
+        int got = 0;
+        boolean ended = false;
+        if (want > 0 && space() > 0) {
+            int toRead = Math.min(want, space());
+            int tail = (head + len) & rxMask;
+            int c1 = Math.min(toRead, rx.length - tail);
+            int r1 = transport.read(rx, tail, c1);
+            if (r1 < 0) { ended = true; r1 = 0; }
+            len += r1; got += r1; toRead -= r1;
+            if (r1 == c1 && toRead > 0 && transport.available() > 0) {
+                int r2 = transport.read(rx, 0, toRead);
+                if (r2 > 0) { len += r2; got += r2; }
             }
+            if (got > 0) { lastReadNanos = System.nanoTime(); bytesRead += got; }
+            if (len > ringHighWater) ringHighWater = len;
         }
 
         // parse as many frames as possible
-        while (len >= MIN_FRAME_TOTAL) {
-            int sofOff = indexOf(SOF, 0, len);
-            if (sofOff < 0) {
-                if (len > 128) { head = 0; len = 0; }
-                break;
+        while (len > 0) {
+            int sofOff = indexOfSOF(0, len);
+            if (sofOff < 0) { skip(len); break; }           // no SOF anywhere: none of it can be a frame
+            if (sofOff > 0) skip(sofOff);                    // bytes before an SOF can never be a frame
+            int consume = (get(0) == BATCH_SOF) ? parseBatch(sink) : parseSingle(sink);
+            if (consume == 0) {                              // wait for the rest of this frame
+                if (space() == 0) skip(1);                   // unless it can never fit
+                else break;
             }
-            if (len - sofOff < MIN_FRAME_TOTAL) break;
-
-            int c0 = get(sofOff + 1) & 0xFF;
-            int c1 = get(sofOff + 2) & 0xFF;
-            int chk16 = c0 | (c1 << 8);
-
-            byte[] payload = new byte[12];                 // ID(4 LE) + DATA(8 LE)
-            copyOut(payload, 0, sofOff + 3, 12);
-            int calc16 = inetChecksum16(payload, 0, 12);
-
-            int consume;    //how many bytes we consumed with this msg
-            if (chk16 == calc16) {
-                onMessageRecv.accept(payload);  //callback for valid message :)
-                consume = sofOff + MIN_FRAME_TOTAL;
-            } else {
-                //Indicate checksum issue, and call invalid msg callback
-                System.out.print(String.format(
-                    "[SerialBridge warning] checksum failed: got=0x%04X expected=0x%04X.",
-                    chk16, calc16));
-                onMessageInvalid.accept(payload);
-
-                int next = indexOf(SOF, sofOff + 1, MIN_FRAME_TOTAL - 1);
-                consume = (next >= 0) ? next : (sofOff + MIN_FRAME_TOTAL);
-            }
-            drop(consume);
+            else if (consume > 0) drop(consume);
+            else skip(-consume);
+        }
+        statsSeq++;     // volatile write publishes the counters above to other threads
+        return (ended && got == 0) ? -1 : got;
+    }
+
+    // Legacy frame at the head of the ring: [0xFF][CHK16 LE][ID32 LE][DATA64 LE].
+    // Returns bytes consumed by a good frame, 0 if the frame isn't complete yet, or -n to skip n bytes.
+    private int parseSingle(FrameSink sink) {
+        if (len < MIN_FRAME_TOTAL) return 0;
+
+        int chk16 = get(1) | (get(2) << 8);
+        // ID(4 LE) + DATA(8 LE), read straight out of the ring
+        int canId = getIntLE(3);
+        long data = getLongLE(7);
+        int calc16 = inetChecksum16Ring(3, 12);
+
+        if (chk16 == calc16) {
+            framesGood++;
+            sink.onFrame(canId, data, lastReadNanos);  //callback for valid message :)
+            return MIN_FRAME_TOTAL;
         }
+        //Indicate checksum issue, and call invalid msg callback
+        Log.warn("framing", "checksum failed on %s: got=0x%04X expected=0x%04X",
+            transport.describe(), chk16, calc16);
+        framesInvalid++;
+        sink.onInvalidFrame(canId, data, lastReadNanos);
+
+        // resync on the next SOF inside this frame, if there is one
+        int next = indexOfSOF(1, MIN_FRAME_TOTAL - 1);
+        return (next >= 0) ? -next : -MIN_FRAME_TOTAL;
+    }
+
+    // Batch at the head of the ring: [0xFE][N][~N][N x (ID32 LE + DATA64 LE)][CRC-32C LE over N, ~N, frames].
+    // Returns bytes consumed by a good batch, 0 if the batch isn't complete yet, or -n to skip n bytes.
+    private int parseBatch(FrameSink sink) {
+        if (len < BATCH_HEADER) return 0;
+        int n = get(1);
+        if (n == 0 || n > BATCH_MAX_FRAMES || (get(2) ^ 0xFF) != n) return -1; // stray 0xFE, not a header
+        int total = BATCH_HEADER + n * 12 + 4;
+        if (len < total) return 0;
+
+        crc.reset();
+        int p = (head + 1) & rxMask;
+        int bodyLen = total - 5;                            // N, ~N and the frames
+        int c1 = Math.min(bodyLen, rx.length - p);
+        crc.update(rx, p, c1);
+        if (bodyLen > c1) crc.update(rx, 0, bodyLen - c1);
+        int expected = getIntLE(total - 4);
+        if ((int) crc.getValue() != expected) {
+            Log.warn("framing", "batch CRC failed on %s: got=0x%08X expected=0x%08X",
+                transport.describe(), expected, (int) crc.getValue());
+            framesInvalid++;
+            return -1;                                      // resync from the next SOF after this one
+        }
+        for (int k = 0, off = BATCH_HEADER; k < n; k++, off += 12) {
+            sink.onFrame(getIntLE(off), getLongLE(off + 4), lastReadNanos);
+        }
+        framesGood += n;
+        return total;
+    }
+
+    /* ===== Batch negotiation ===== */
+    // Asks the dongle to pack up to maxFrames CAN frames per batch (0 goes back to single frames).
+    // Firmware without batch support forwards this onto CAN like any other command, so only send it to
+    // dongles known to understand it. Legacy frames are always accepted, before and after.
+    public boolean requestBatching(int maxFrames) {
+        byte[] msg = new byte[8];
+        System.arraycopy(BATCH_MAGIC, 0, msg, 0, BATCH_MAGIC.length);
+        msg[BATCH_MAGIC.length] = (byte) Math.max(0, Math.min(maxFrames, BATCH_MAX_FRAMES));
+        return sendMessage(msg);
     }
 
     /* ===== helpers for circular buffer used by recvFrames ===== */
-    private int space() { return RX_CAP - len; }
-    private int get(int off) { return rx[(head + off) % RX_CAP] & 0xFF; }
-    private void copyOut(byte[] dst, int dstOff, int srcOff, int n) {
-        int start = (head + srcOff) % RX_CAP;
-        int c1 = Math.min(n, RX_CAP - start);
-        System.arraycopy(rx, start, dst, dstOff, c1);
-        if (n > c1) System.arraycopy(rx, 0, dst, dstOff + c1, n - c1);
-    }
-    private void drop(int n) { head = (head + n) % RX_CAP; len -= n; if (len < 0) { head = 0; len = 0; } }
-    private int indexOf(byte b, int off, int count) {
-        for (int i = 0; i < count; i++) if ((byte)get(off + i) == b) return off + i;
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_LE  = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES  = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private static int ringCapacity(int requested) {
+        int cap = Math.max(requested, 2 * MAX_BATCH_TOTAL);
+        return 1 << (32 - Integer.numberOfLeadingZeros(cap - 1));   // round up to a power of two
+    }
+    private int space() { return rx.length - len; }
+    private int get(int off) { return rx[(head + off) & rxMask] & 0xFF; }
+    private int getIntLE(int off) {
+        int p = (head + off) & rxMask;
+        if (p + 4 <= rx.length) return (int) INT_LE.get(rx, p);
+        return get(off) | (get(off + 1) << 8) | (get(off + 2) << 16) | (get(off + 3) << 24);
+    }
+    private long getLongLE(int off) {
+        int p = (head + off) & rxMask;
+        if (p + 8 <= rx.length) return (long) LONG_LE.get(rx, p);
+        return (getIntLE(off) & 0xFFFFFFFFL) | ((long) getIntLE(off + 4) << 32);
+    }
+    private void skip(int n) { resyncSkips++; discardedBytes += n; drop(n); }
+    private void drop(int n) { head = (head + n) & rxMask; len -= n; if (len < 0) { head = 0; len = 0; } }
+
+    // Offset of the first SOF (single 0xFF or batch 0xFE) in [off, off+count), or -1. Scans 8 bytes per step on each contiguous run of the ring.
+    private int indexOfSOF(int off, int count) {
+        int scanned = 0;
+        while (scanned < count) {
+            int p = (head + off + scanned) & rxMask;
+            int run = Math.min(count - scanned, rx.length - p);
+            int hit = indexOfSOFLinear(p, run);
+            if (hit >= 0) return off + scanned + hit;
+            scanned += run;
+        }
+        return -1;
+    }
+    private int indexOfSOFLinear(int p, int run) {
+        int i = 0;
+        for (; i + 8 <= run; i += 8) {
+            long v = ~((long) LONG_LE.get(rx, p + i) | ONES);      // 0xFF and 0xFE bytes become 0x00
+            long zeros = (v - ONES) & ~v & HIGHS;                   // high bit set on each zero byte
+            if (zeros != 0) return i + (Long.numberOfTrailingZeros(zeros) >>> 3);
+        }
+        for (; i < run; i++) if ((rx[p + i] & 0xFE) == 0xFE) return i;
         return -1;
     }
     /* =========== */
 
+    // Same sum as inetChecksum16, but over ring offsets so validating a frame needs no copy
+    private int inetChecksum16Ring(int off, int n) {
+        long sum = 0;
+        for (int i = 0; i + 1 < n; i += 2) sum += get(off + i) | (get(off + i + 1) << 8);
+        if ((n & 1) != 0) sum += get(off + n - 1);
+        sum = (sum & 0xFFFF) + (sum >> 16);
+        sum = (sum & 0xFFFF) + (sum >> 16);
+        return (int)(~sum) & 0xFFFF;
+    }
+
     private int inetChecksum16(byte[] data, int off, int len) {
         long sum = 0;                       // 32-bit accumulator
         int i = off;
@@ -159,15 +340,35 @@ public final class SerialBridge implements AutoCloseable {
         return (int)(~sum) & 0xFFFF;
     }
 
-    // Send a  message of 8 data byes. 1 byte SOF, 2 byte Checksum, 8 byte data
-    public void sendMessage(byte[] data) throws IOException {
+    /* ===== Outbound commands ===== */
+    // Callers only enqueue, a dedicated writer thread coalesces whatever is pending into one write+flush.
+    // That keeps the EDT (NotificationPanel's command bar) from ever waiting on the link.
+    public static final int DEFAULT_TX_QUEUE = 64;
+    private static final int TX_FRAME_LEN = 1 + 2 + 8;
+    private final ArrayBlockingQueue<byte[]> txQueue;
+    private final OverflowPolicy txPolicy;
+    private final byte[] txBatch;                              // writer thread only
+    private final ArrayList<byte[]> txPending = new ArrayList<>();  // writer thread only
+    private final AtomicLong txDropped = new AtomicLong();
+    private final AtomicLong txWriteErrors = new AtomicLong();
+    private Thread writerThread;
+
+    // Commands waiting for the writer thread
+    public int pendingCommands() { return txQueue.size(); }
+    // Commands refused or evicted because the queue was full
+    public long droppedCommands() { return txDropped.get(); }
+    public long commandWriteErrors() { return txWriteErrors.get(); }
+
+    // Queue a message of 8 data byes. 1 byte SOF, 2 byte Checksum, 8 byte data.
+    // Returns false if the queue was full and the txPolicy dropped this message.
+    public boolean sendMessage(byte[] data) {
         if (data == null) {
-            System.out.println("ignoring null msg ");
-            return;
+            Log.warn("command", "ignoring null msg");
+            return false;
         }
         byte[] newData = new byte[8];
         if(data.length != 8){   //pad with 0's
-            System.out.println("data length not 8, padding with 0's");
+            Log.warn("command", "data length not 8, padding with 0's");
             System.arraycopy(data, 0, newData, 0, Math.min(data.length, 8));
             data = newData;
         }
@@ -176,25 +377,69 @@ public final class SerialBridge implements AutoCloseable {
         int chk16 = inetChecksum16(data, 0, 8) & 0xFFFF;
 
         // Build frame: [SOF=0xFF][CHK16 BE][DATA 8 bytes]
-        byte[] frame = new byte[1 + 2 + 8];
+        byte[] frame = new byte[TX_FRAME_LEN];
         frame[0] = (byte) 0xFF;
         frame[1] = (byte)(chk16 & 0xFF);
         frame[2] = (byte)(chk16 >>> 8);  
         System.arraycopy(data, 0, frame, 3, 8);
 
-        synchronized (out) {
-            out.write(frame);
-            out.flush();
+        switch (txPolicy) {
+            case DROP_NEWEST -> {
+                if (!txQueue.offer(frame)) { txDropped.incrementAndGet(); return false; }
+            }
+            case DROP_OLDEST -> {
+                while (!txQueue.offer(frame)) {
+                    if (txQueue.poll() != null) txDropped.incrementAndGet();
+                }
+            }
+            case BLOCK -> {
+                try { txQueue.put(frame); }
+                catch (InterruptedException e) { Thread.currentThread().interrupt(); txDropped.incrementAndGet(); return false; }
+            }
         }
+        return true;
+    }
+
+    private void startWriter() {
+        writerThread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    txPending.add(txQueue.take());  // sleep until there is something to send
+                    // then take what else piled up, up to a full batch: take() freed a slot a producer may
+                    // already have refilled, so the queue can hold one more than its capacity's worth by now
+                    txQueue.drainTo(txPending, txBatch.length / TX_FRAME_LEN - 1);
+                    int n = 0;
+                    for (byte[] frame : txPending) {
+                        System.arraycopy(frame, 0, txBatch, n, TX_FRAME_LEN);
+                        n += TX_FRAME_LEN;
+                    }
+                    transport.write(txBatch, 0, n);
+                    transport.flush();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException e) {
+                    txWriteErrors.incrementAndGet();
+                    Log.error("link", "send failed on %s: %s", transport.describe(), e.getMessage());
+                } catch (RuntimeException e) {     // a bad write must not stop every later command
+                    txWriteErrors.incrementAndGet();
+                    Log.error("link", "send failed on %s: %s", transport.describe(), e);
+                } finally {
+                    txPending.clear();
+                }
+            }
+        }, "serial-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
     }
+
     @Override
     public void close() {
         running = false;
-        if (port != null && port.isOpen()) port.closePort();  // breaks blocking read
+        if (writerThread != null) writerThread.interrupt();
+        transport.close();  // breaks blocking read
         if (readerThread != null) {
             readerThread.interrupt();
             try { readerThread.join(500); } catch (InterruptedException ignored) {}
         }
-        try { if (out != null) out.close(); } catch (IOException ignored) {}
     }
 }
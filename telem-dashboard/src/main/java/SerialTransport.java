@@ -0,0 +1,113 @@
+import com.fazecast.jSerialComm.SerialPort;
+import com.fazecast.jSerialComm.SerialPortDataListener;
+import com.fazecast.jSerialComm.SerialPortEvent;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// The CAN_to_UART dongle over jSerialComm
+public final class SerialTransport implements Transport {
+    // How the reader thread waits for bytes from the port
+    public enum IngestMode {
+        POLLING,    // non-blocking bytesAvailable() + Thread.yield() spin. Lowest latency, burns a whole core
+        BLOCKING,   // semi-blocking read with a timeout, thread sleeps in the OS until bytes arrive
+        EVENT       // jSerialComm data-available listener wakes the reader, which then drains the port
+    }
+    private static final int READ_TIMEOUT_MS = 100;   // how long a blocking wait lasts before re-checking running
+
+    private final SerialPort port;
+    private final OutputStream out;
+    private final IngestMode mode;
+    private final Object dataSignal = new Object();   // EVENT mode: listener -> reader wakeup
+    private boolean dataPending = false;              // guarded by dataSignal
+
+    public SerialTransport(String portName, int baud, IngestMode mode) throws IOException {
+        this.mode = mode;
+        this.port = SerialPort.getCommPort(portName);
+        port.setBaudRate(baud);
+        port.setNumDataBits(8);
+        port.setParity(SerialPort.NO_PARITY);
+        port.setNumStopBits(SerialPort.ONE_STOP_BIT);
+        if (mode == IngestMode.BLOCKING) {
+            port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, READ_TIMEOUT_MS, 0);
+        } else {
+            port.setComPortTimeouts(SerialPort.TIMEOUT_NONBLOCKING, 0, 0);
+        }
+        port.setFlowControl(SerialPort.FLOW_CONTROL_DISABLED);
+        port.setDTR();
+        port.setRTS();
+        if (!port.openPort()) throw new IOException("Failed to open port " + portName);
+
+        try { Thread.sleep(2000); } catch (InterruptedException ignored) {}
+        this.out = port.getOutputStream();
+        if (mode == IngestMode.EVENT) installDataListener();
+    }
+
+    public IngestMode ingestMode() { return mode; }
+
+    @Override
+    public int read(byte[] dst, int off, int len) throws IOException {
+        int n;
+        switch (mode) {
+            case BLOCKING -> n = port.readBytes(dst, len, off);   // sleeps until at least one byte, or the timeout
+            case EVENT -> {
+                int avail = available();
+                if (avail == 0 && (avail = awaitDataEvent()) == 0) return 0;
+                n = port.readBytes(dst, Math.min(len, avail), off);
+            }
+            default -> {
+                int avail = available();
+                if (avail == 0) { Thread.yield(); return 0; }
+                n = port.readBytes(dst, Math.min(len, avail), off);
+            }
+        }
+        if (n < 0) throw new IOException("read failed on " + port.getSystemPortName());
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        int avail = port.bytesAvailable();
+        if (avail < 0) throw new IOException(port.getSystemPortName() + " is closed");
+        return avail;
+    }
+
+    @Override
+    public void write(byte[] src, int off, int len) throws IOException { out.write(src, off, len); }
+
+    @Override
+    public void flush() throws IOException { out.flush(); }
+
+    @Override
+    public String describe() { return "serial:" + port.getSystemPortPath() + " (" + mode + ")"; }
+
+    // EVENT mode: jSerialComm calls us back on its own thread, we just wake the reader.
+    private void installDataListener() {
+        port.addDataListener(new SerialPortDataListener() {
+            @Override public int getListeningEvents() { return SerialPort.LISTENING_EVENT_DATA_AVAILABLE; }
+            @Override public void serialEvent(SerialPortEvent event) {
+                synchronized (dataSignal) {
+                    dataPending = true;
+                    dataSignal.notifyAll();
+                }
+            }
+        });
+    }
+
+    // Wait for the listener to signal. Times out so close() is noticed, and so a missed event can't stall us.
+    private int awaitDataEvent() throws IOException {
+        synchronized (dataSignal) {
+            if (!dataPending) {
+                try { dataSignal.wait(READ_TIMEOUT_MS); } catch (InterruptedException ignored) {}
+            }
+            dataPending = false;
+        }
+        return available();
+    }
+
+    @Override
+    public void close() {
+        if (mode == IngestMode.EVENT) port.removeDataListener();
+        if (port.isOpen()) port.closePort();  // breaks blocking read
+        try { out.close(); } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,88 @@
+// Parallel decode: frames are hashed by nodeId onto a fixed pool of worker threads, one FrameRing each.
+// All frames from one node land on the same worker, so each node's frames are decoded in the order they
+// arrived while different nodes decode side by side. Per-node state in the decode sink needs no locking;
+// anything shared across nodes must be thread safe.
+//
+// onFrame is the single producer for every shard ring, so call it from one thread only: a bridge's reader,
+// or the merger's thread when several links are open.
+public final class ShardedDecoder implements FrameSink, AutoCloseable {
+
+    private static final int NODE_ID_MASK = (1 << Constants.nodeIDSizeBits) - 1;
+    private static final int DRAIN_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = 50_000_000;
+    private static final double LATENCY_EWMA_ALPHA = 1.0 / 64;
+
+    // Per shard numbers. latency is receive time (rxNanos) to the decode sink returning
+    public record ShardStats(int shard, int queued, int queueHighWater, int queueCapacity, long overflows,
+                             long decoded, long meanLatencyNanos, long maxLatencyNanos) {}
+
+    private final FrameRing[] rings;
+    private final Shard[] shards;
+    private final byte[] shardOfNode = new byte[NODE_ID_MASK + 1];
+    private volatile boolean running = true;
+
+    public ShardedDecoder(int workers, int queueCapacity, OverflowPolicy policy, FrameSink out) {
+        if (workers < 1 || workers > 64) throw new IllegalArgumentException("workers must be 1-64, got " + workers);
+        rings = new FrameRing[workers];
+        shards = new Shard[workers];
+        for (int i = 0; i < NODE_ID_MASK + 1; i++) shardOfNode[i] = (byte) (i % workers);
+        for (int i = 0; i < workers; i++) {
+            rings[i] = new FrameRing(queueCapacity, policy);
+            shards[i] = new Shard(i, rings[i], out);
+            shards[i].thread.start();
+        }
+    }
+
+    public int shards() { return shards.length; }
+
+    public int shardOf(int nodeId) { return shardOfNode[nodeId & NODE_ID_MASK]; }
+
+    @Override
+    public void onFrame(int canId, long data, long rxNanos) {
+        rings[shardOfNode[canId & NODE_ID_MASK]].offer(canId, data, rxNanos);
+    }
+
+    public ShardStats stats(int shard) {
+        Shard s = shards[shard];
+        FrameRing r = rings[shard];
+        return new ShardStats(shard, r.size(), r.highWater(), r.capacity(), r.overflows(),
+                s.decoded, (long) s.meanLatency, s.maxLatency);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Shard s : shards) java.util.concurrent.locks.LockSupport.unpark(s.thread);
+    }
+
+    // One worker. Its counters are written only by its own thread
+    private final class Shard implements FrameSink {
+        final FrameRing ring;
+        final FrameSink out;
+        final Thread thread;
+        volatile long decoded = 0, maxLatency = 0;
+        volatile double meanLatency = 0;
+
+        Shard(int index, FrameRing ring, FrameSink out) {
+            this.ring = ring;
+            this.out = out;
+            thread = new Thread(this::run, "frame-decoder-" + index);
+            thread.setDaemon(true);
+        }
+
+        void run() {
+            while (running) {
+                if (ring.drainTo(this, DRAIN_BATCH) == 0) ring.await(IDLE_PARK_NANOS);
+            }
+        }
+
+        @Override
+        public void onFrame(int canId, long data, long rxNanos) {
+            out.onFrame(canId, data, rxNanos);
+            long latency = System.nanoTime() - rxNanos;
+            meanLatency += (latency - meanLatency) * LATENCY_EWMA_ALPHA;
+            if (latency > maxLatency) maxLatency = latency;
+            decoded++;
+        }
+    }
+}
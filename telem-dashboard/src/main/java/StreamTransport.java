@@ -0,0 +1,38 @@
+import java.io.IOException;
+import java.io.InputStream;
+
+// Read-only transport over a plain InputStream: a raw capture file, or bytes piped into stdin.
+// Reads as fast as the stream allows, which makes it the easy way to find where decoding saturates.
+public final class StreamTransport implements Transport {
+    private final InputStream in;
+    private final String name;
+    private boolean warnedWrite = false;
+
+    public StreamTransport(InputStream in, String name) {
+        this.in = in;
+        this.name = name;
+    }
+
+    @Override
+    public int read(byte[] dst, int off, int len) throws IOException { return in.read(dst, off, len); }
+
+    @Override
+    public int available() throws IOException { return in.available(); }
+
+    @Override
+    public void write(byte[] src, int off, int len) {
+        if (!warnedWrite) {
+            Log.warn("link", "%s is read-only, dropping outbound messages", name);
+            warnedWrite = true;
+        }
+    }
+
+    @Override
+    public String describe() { return name; }
+
+    @Override
+    public void close() {
+        if (in == System.in) return;    // leave stdin to the JVM
+        try { in.close(); } catch (IOException ignored) {}
+    }
+}
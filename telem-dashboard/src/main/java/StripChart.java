@@ -0,0 +1,206 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import javax.swing.*;
+
+import org.jfree.chart.plot.ValueMarker;
+
+// A scrolling strip chart of one signal, for rates JFreeChart's XYPlot can't keep up with. Time runs at a fixed
+// speed (COLUMN_NANOS per pixel column, newest at the right edge), so the picture never needs rescaling: each
+// frame scrolls the image left by the columns that passed and draws only those, plus any a late sample touched.
+// A column is a vertical line over the min/max of its samples, joined to the one before it; a signal that sends
+// less often than once per column is held at its last value for up to HOLD_NANOS, then shows a gap.
+// The y range is the signal's declared min..max, widened (with a full redraw) if a value falls outside it.
+// Threshold markers are MainPanel's, drawn over the image.
+//
+// Reads every sample of its signal through its own SampleBuffer cursor, so none are skipped whatever the live
+// window. The RenderScheduler calls frame(); off screen it keeps its columns but draws nothing. EDT only.
+public class StripChart extends JComponent {
+
+    public static final long COLUMN_NANOS = Math.max(1, Long.getLong("telem.strip.columnMs", 10)) * 1_000_000L;
+    private static final long HOLD_NANOS = 1_000_000_000L;
+    private static final int COLUMNS = 4096;       // widest chart that can be shown
+
+    private final SampleBuffer samples;
+    private final SampleBuffer.Cursor cursor;
+    private final long startNanos;
+    private final int key;
+    private final SampleBuffer.Sink toColumns = this::onSample;
+
+    // column c (time since start / COLUMN_NANOS) is at slot floorMod(c, COLUMNS); count 0 is an empty column
+    private final int[] colMin = new int[COLUMNS], colMax = new int[COLUMNS], colLast = new int[COLUMNS];
+    private final int[] colCount = new int[COLUMNS];
+    private long newest = -1;           // newest column with a slot cleared for it
+    private long drawn = -1;            // newest column in the image
+    private long dirtyFrom = Long.MAX_VALUE;    // oldest column changed since the last draw
+    private boolean redrawAll = true;
+
+    private String title;
+    private List<ValueMarker> markers;
+    private double lo, hi;
+    private Color background = Color.DARK_GRAY, foreground = Color.WHITE;
+    private BufferedImage image;
+
+    public StripChart(SampleBuffer samples, long startNanos, int key, String title, TelemetryLookup.DataInfo info,
+                      List<ValueMarker> markers) {
+        this.samples = samples;
+        this.cursor = samples.cursor();
+        this.startNanos = startNanos;
+        this.key = key;
+        signal(title, info, markers);
+        setOpaque(true);
+    }
+
+    public int getKey() { return key; }
+
+    // After a schema reload
+    public void setSignal(String title, TelemetryLookup.DataInfo info, List<ValueMarker> markers) {
+        signal(title, info, markers);
+        redrawAll = true;
+        repaint();
+    }
+
+    private void signal(String title, TelemetryLookup.DataInfo info, List<ValueMarker> markers) {
+        this.title = title;
+        this.markers = markers;
+        lo = info.min();
+        hi = Math.max(info.max(), info.min() + 1);
+    }
+
+    public void setColors(Color background, Color foreground) {
+        this.background = background;
+        this.foreground = foreground;
+        redrawAll = true;
+        repaint();
+    }
+
+    // Takes in the samples since the last frame and, if draw, brings the image up to nowNanos
+    public void frame(long nowNanos, boolean draw) {
+        samples.drain(cursor, key, 0, toColumns);
+        advance(Math.floorDiv(nowNanos - startNanos, COLUMN_NANOS));
+        if (!draw) return;
+        render();
+        repaint();
+    }
+
+    private void onSample(int key, long rxNanos, int value) {
+        long c = Math.floorDiv(rxNanos - startNanos, COLUMN_NANOS);
+        if (c < 0 || c <= newest - COLUMNS) return;    // older than the chart can show
+        advance(c);
+        int i = Math.floorMod(c, COLUMNS);
+        if (colCount[i] == 0) {
+            colMin[i] = colMax[i] = value;
+        } else {
+            if (value < colMin[i]) colMin[i] = value;
+            if (value > colMax[i]) colMax[i] = value;
+        }
+        colLast[i] = value;
+        colCount[i]++;
+        dirtyFrom = Math.min(dirtyFrom, c);
+        if (value < lo || value > hi) {     // widen by a tenth of the span beyond the value
+            double margin = (hi - lo) / 10;
+            lo = Math.min(lo, value - margin);
+            hi = Math.max(hi, value + margin);
+            redrawAll = true;
+        }
+    }
+
+    private void advance(long c) {
+        if (c <= newest) return;
+        for (long k = Math.max(newest + 1, c - COLUMNS + 1); k <= c; k++) colCount[Math.floorMod(k, COLUMNS)] = 0;
+        newest = c;
+    }
+
+    private void render() {
+        int w = getWidth(), h = getHeight();
+        if (w <= 0 || h <= 0 || newest < 0) return;
+        w = Math.min(w, COLUMNS);
+        if (image == null || image.getWidth() != w || image.getHeight() != h) {
+            image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            redrawAll = true;
+        }
+        Graphics2D g = image.createGraphics();
+        try {
+            long from;
+            if (redrawAll || newest - drawn >= w) {
+                from = newest - w + 1;
+            } else {
+                int shift = (int) (newest - drawn);
+                if (shift > 0) g.copyArea(shift, 0, w - shift, h, -shift, 0);
+                from = Math.max(newest - w + 1, Math.min(dirtyFrom, drawn + 1));
+            }
+            int x0 = w - 1 - (int) (newest - from);
+            g.setColor(background);
+            g.fillRect(x0, 0, w - x0, h);
+            g.setColor(foreground);
+            drawColumns(g, from, newest, x0, h);
+        } finally {
+            g.dispose();
+        }
+        drawn = newest;
+        dirtyFrom = Long.MAX_VALUE;
+        redrawAll = false;
+    }
+
+    // columns from..to, the first at x
+    private void drawColumns(Graphics2D g, long from, long to, int x, int h) {
+        long hold = HOLD_NANOS / COLUMN_NANOS;
+        // the value the first column joins to or holds: the last one within hold before it
+        boolean have = false;
+        int prev = 0;
+        long since = 0;     // columns since prev was seen
+        for (long k = from - 1; k >= Math.max(0, from - 1 - hold) && k > newest - COLUMNS; k--) {
+            int i = Math.floorMod(k, COLUMNS);
+            if (colCount[i] > 0) {
+                have = true;
+                prev = colLast[i];
+                since = from - 1 - k;
+                break;
+            }
+        }
+        for (long c = from; c <= to; c++, x++) {
+            int i = Math.floorMod(c, COLUMNS);
+            if (c >= 0 && colCount[i] > 0) {
+                int mn = colMin[i], mx = colMax[i];
+                if (have) {
+                    mn = Math.min(mn, prev);
+                    mx = Math.max(mx, prev);
+                }
+                g.drawLine(x, y(mx, h), x, y(mn, h));
+                have = true;
+                prev = colLast[i];
+                since = 0;
+            } else if (have && ++since <= hold) {
+                int y = y(prev, h);
+                g.drawLine(x, y, x, y);
+            } else {
+                have = false;
+            }
+        }
+    }
+
+    private int y(double v, int h) {
+        return (int) Math.round((h - 1) * (hi - v) / (hi - lo));
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            int w = getWidth(), h = getHeight();
+            g.setColor(background);
+            g.fillRect(0, 0, w, h);
+            if (image != null) g.drawImage(image, w - image.getWidth(), 0, null);
+            for (ValueMarker m : markers) {
+                g.setPaint(m.getPaint());
+                g.setStroke(m.getStroke());
+                int y = y(m.getValue(), h);
+                g.drawLine(0, y, w, y);
+            }
+            g.setColor(foreground);
+            g.drawString(title, 6, g.getFontMetrics().getAscent() + 4);
+        } finally {
+            g.dispose();
+        }
+    }
+}
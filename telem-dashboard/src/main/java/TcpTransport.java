@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+// Frame bytes over TCP, either dialing out to a relay on the car or accepting one.
+// A dropped connection is re-established inside read(), so the reader thread never has to care.
+public final class TcpTransport implements Transport {
+    private static final int READ_TIMEOUT_MS = 100;
+    private static final int RECONNECT_BACKOFF_MS = 1000;
+
+    private final String host;          // client mode
+    private final int port;
+    private final ServerSocket server;  // server mode, null for client
+    private volatile Socket socket;
+    private InputStream in;
+    private OutputStream out;
+    private volatile boolean closed = false;
+    private long nextConnectAttempt = 0;
+
+    private TcpTransport(String host, int port, ServerSocket server) {
+        this.host = host;
+        this.port = port;
+        this.server = server;
+    }
+
+    public static TcpTransport connect(String host, int port) throws IOException {
+        TcpTransport t = new TcpTransport(host, port, null);
+        t.ensureConnected();    // fail fast if the relay isn't there at startup
+        if (t.socket == null) throw new IOException("Could not connect to " + host + ":" + port);
+        return t;
+    }
+
+    public static TcpTransport listen(int port) throws IOException {
+        ServerSocket ss = new ServerSocket(port);
+        ss.setSoTimeout(READ_TIMEOUT_MS);
+        return new TcpTransport(null, port, ss);
+    }
+
+    // (Re)open the connection if needed. Returns false if there is still nothing to read from.
+    private boolean ensureConnected() throws IOException {
+        if (socket != null) return true;
+        if (closed) return false;
+        Socket s;
+        if (server != null) {
+            try { s = server.accept(); } catch (SocketTimeoutException e) { return false; }
+        } else {
+            long now = System.currentTimeMillis();
+            if (now < nextConnectAttempt) {
+                try { Thread.sleep(READ_TIMEOUT_MS); } catch (InterruptedException ignored) {}
+                return false;
+            }
+            nextConnectAttempt = now + RECONNECT_BACKOFF_MS;
+            s = new Socket();
+            try {
+                s.connect(new InetSocketAddress(host, port), RECONNECT_BACKOFF_MS);
+            } catch (IOException e) {
+                s.close();
+                return false;
+            }
+        }
+        s.setTcpNoDelay(true);
+        s.setSoTimeout(READ_TIMEOUT_MS);
+        in = s.getInputStream();
+        out = s.getOutputStream();
+        socket = s;
+        Log.info("link", "tcp connected %s", s.getRemoteSocketAddress());
+        return true;
+    }
+
+    private void dropConnection() {
+        Socket s = socket;
+        socket = null;
+        if (s != null) {
+            Log.warn("link", "tcp connection lost %s", s.getRemoteSocketAddress());
+            try { s.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    @Override
+    public int read(byte[] dst, int off, int len) throws IOException {
+        if (!ensureConnected()) return closed ? -1 : 0;
+        try {
+            int n = in.read(dst, off, len);
+            if (n < 0) { dropConnection(); return 0; }
+            return n;
+        } catch (SocketTimeoutException e) {
+            return 0;
+        } catch (IOException e) {
+            if (closed) return -1;
+            dropConnection();
+            return 0;
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (socket != null) ? in.available() : 0;
+    }
+
+    @Override
+    public void write(byte[] src, int off, int len) throws IOException {
+        if (socket == null) throw new IOException("not connected: " + describe());
+        out.write(src, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException { if (socket != null) out.flush(); }
+
+    @Override
+    public String describe() {
+        return (server != null) ? "tcp-listen:" + port : "tcp:" + host + ":" + port;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dropConnection();
+        if (server != null) try { server.close(); } catch (IOException ignored) {}
+    }
+}
@@ -38,7 +38,9 @@ public class TelemetryLookup {
 
     // Tuple keys (identity by nodeId + indices)
     public record FrameKey(int nodeId, int frameIndex) {}
-    public record DataKey(int nodeId, int frameIndex, int dataIndex) {}
+    public record DataKey(int nodeId, int frameIndex, int dataIndex) {
+        public int packed() { return pack(nodeId, frameIndex, dataIndex); }
+    }
 
     // Commitment for each triple (node, frame sent by that node, data within that frame)
     public record Commitment(Node node, CANFrame frame, DataInfo data) {}
@@ -54,6 +56,23 @@ public class TelemetryLookup {
     private final Map<DataKey, DataInfo> dataById = new HashMap<>();
 
 
+    /* ============== Dense tables keyed by packed int ================*/
+    // Every signal fits a 13 bit key: nodeId (7 bits) | frameIndex (3) | dataIndex (3). The tables below are
+    // filled once after loading and never change, so lookups by packed key are an array index, allocation free
+    // and safe from any thread. The maps above stay as the canonical views.
+    public static final int FRAME_BITS = Constants.maxFrameCntBits;
+    public static final int DATA_BITS  = Constants.maxDataInFrameBits;
+    public static final int KEY_SPACE  = 1 << (Constants.nodeIDSizeBits + FRAME_BITS + DATA_BITS);
+
+    private final Node[] nodeTable = new Node[1 << Constants.nodeIDSizeBits];
+    private final CANFrame[] frameTable = new CANFrame[1 << (Constants.nodeIDSizeBits + FRAME_BITS)];
+    private final DataInfo[] dataTable = new DataInfo[KEY_SPACE];
+    private final DataKey[] keyTable = new DataKey[KEY_SPACE];      // canonical DataKey per packed key
+    private final String[] titleTable = new String[KEY_SPACE];      // titleFor, built once
+    private final int[] ordinalTable = new int[KEY_SPACE];          // -1 where no signal
+    private final String[] nodeNameTable = new String[1 << Constants.nodeIDSizeBits];  // sensors, then specialIDs
+    private int[] packedByOrdinal = new int[0];
+
     /* =========================== Construction of the class from CSV =========================== */
 
     /** Load from a filesystem path. */
@@ -69,6 +88,14 @@ public class TelemetryLookup {
         }
     }
 
+    /** Build from records already loaded, e.g. by SchemaSnapshot. */
+    TelemetryLookup(Map<Integer, Node> nodes, Map<FrameKey, CANFrame> frames, Map<DataKey, DataInfo> data) {
+        nodesById.putAll(nodes);
+        framesById.putAll(frames);
+        dataById.putAll(data);
+        buildTables();
+    }
+
     private void loadInto(Reader r) throws IOException {
         try (CSVParser parser = CSVFormat.Builder.create(CSVFormat.DEFAULT)
                 .setHeader()
@@ -76,57 +103,131 @@ public class TelemetryLookup {
                 .get()
                 .parse(r)) {
 
+            // Column positions are resolved once here, so each row is read by index
+            List<String> header = parser.getHeaderNames();
+            int nodeCol  = column(header, "nodeID");
+            int frameCol = column(header, "frameIndex");
+            int dataCol  = column(header, "dataIndex");
+            var nodeBinder  = RecordFactory.binder(Node.class, header, List.of());
+            var frameBinder = RecordFactory.binder(CANFrame.class, header, List.of("frameIndex"));
+            var dataBinder  = RecordFactory.binder(DataInfo.class, header, List.of("dataIndex"));
+
             for (CSVRecord rec : parser) {  //for each line of telemetry.csv
+                String[] row = rec.values();
                 // Parse IDs/indices from CSV
-                int nodeId   = Integer.parseInt(rec.get("nodeID"));          // primary node identity
-                int frameIdx = Integer.parseInt(rec.get("frameIndex"));     // index within node
-                int dataIdx  = Integer.parseInt(rec.get("dataIndex"));// index within frame
+                int nodeId   = Integer.parseInt(row[nodeCol]);          // primary node identity
+                int frameIdx = Integer.parseInt(row[frameCol]);     // index within node
+                int dataIdx  = Integer.parseInt(row[dataCol]);// index within frame
 
                 // Insert new node if needed
-                nodesById.putIfAbsent(
-                    nodeId,
-                    RecordFactory.createRecord(Node.class, rec::get, Map.of("nodeId", nodeId))
-                );
+                nodesById.computeIfAbsent(nodeId, id -> nodeBinder.create(row));
 
                 // Insert new frame if needed
                 FrameKey fk = new FrameKey(nodeId, frameIdx);
-                framesById.putIfAbsent(
-                    fk,
-                    RecordFactory.createRecord(CANFrame.class, rec::get, Map.of("frameIndex", frameIdx))
-                );
+                framesById.computeIfAbsent(fk, k -> frameBinder.create(row, frameIdx));
 
                 // Insert new if needed DataInfo
                 DataKey dk = new DataKey(nodeId, frameIdx, dataIdx);
-                dataById.put(
-                    dk,
-                    RecordFactory.createRecord(DataInfo.class, rec::get, Map.of("dataIndex", dataIdx))
-                );
+                dataById.put(dk, dataBinder.create(row, dataIdx));
             }
         }
+        buildTables();
+    }
+
+    private static int column(List<String> header, String name) {
+        int i = header.indexOf(name);
+        if (i < 0) throw new IllegalArgumentException("telemetry.csv has no " + name + " column");
+        return i;
+    }
+
+    // Ordinals follow packed key order, so they only change when the schema does, not when CSV rows move
+    private void buildTables() {
+        Arrays.fill(ordinalTable, -1);
+        nodesById.forEach((id, n) -> { if (id >= 0 && id < nodeTable.length) nodeTable[id] = n; });
+        for (int id = 0; id < nodeNameTable.length; id++) {
+            nodeNameTable[id] = (nodeTable[id] != null) ? nodeTable[id].nodeName()
+                    : IntConstUtils.nameOrNull(Constants.specialIDs.nameByValue, id);
+        }
+        framesById.forEach((k, f) -> {
+            if (inRange(k.nodeId(), k.frameIndex(), 0)) frameTable[(k.nodeId() << FRAME_BITS) | k.frameIndex()] = f;
+        });
+        int[] packed = dataById.keySet().stream()
+                .filter(k -> inRange(k.nodeId(), k.frameIndex(), k.dataIndex()))
+                .mapToInt(DataKey::packed).sorted().toArray();
+        for (int ord = 0; ord < packed.length; ord++) {
+            int p = packed[ord];
+            DataKey k = new DataKey(nodeOf(p), frameOf(p), dataOf(p));
+            dataTable[p] = dataById.get(k);
+            keyTable[p] = k;
+            ordinalTable[p] = ord;
+            titleTable[p] = buildTitle(k);
+        }
+        packedByOrdinal = packed;
+    }
+
+    /* ======================= Packed keys ======================= */
+    public static int pack(int nodeId, int frameIndex, int dataIndex) {
+        return (((nodeId << FRAME_BITS) | frameIndex) << DATA_BITS) | dataIndex;
+    }
+    public static int nodeOf(int packed)  { return packed >>> (FRAME_BITS + DATA_BITS); }
+    public static int frameOf(int packed) { return (packed >>> DATA_BITS) & ((1 << FRAME_BITS) - 1); }
+    public static int dataOf(int packed)  { return packed & ((1 << DATA_BITS) - 1); }
+
+    public static boolean inRange(int nodeId, int frameIndex, int dataIndex) {
+        return (nodeId >>> Constants.nodeIDSizeBits) == 0 && (frameIndex >>> FRAME_BITS) == 0
+                && (dataIndex >>> DATA_BITS) == 0;
+    }
+
+    /* ============= Lookups by packed key (no allocation) ============= */
+    public int signalCount()               { return packedByOrdinal.length; }
+    public int signalOrdinal(int packed)   { return ordinalTable[packed]; }     // -1 if no such signal
+    public int packedKeyOf(int ordinal)    { return packedByOrdinal[ordinal]; }
+    public boolean hasSignal(int packed)   { return ordinalTable[packed] >= 0; }
+    public DataInfo dataInfo(int packed)   { return dataTable[packed]; }        // null if no such signal
+    public DataKey dataKey(int packed)     { return keyTable[packed]; }         // canonical instance, or null
+    public String title(int packed)        { return titleTable[packed]; }
+    public CANFrame frame(int nodeId, int frameIndex) {
+        return inRange(nodeId, frameIndex, 0) ? frameTable[(nodeId << FRAME_BITS) | frameIndex] : null;
+    }
+    public Node node(int nodeId) {
+        return (nodeId >= 0 && nodeId < nodeTable.length) ? nodeTable[nodeId] : null;
+    }
+    public String nodeName(int nodeId) {     // sensor name, else special ID name, else null
+        return (nodeId >= 0 && nodeId < nodeNameTable.length) ? nodeNameTable[nodeId] : null;
     }
 
+    // Signal fields as ints. The packed key must name a signal (hasSignal)
+    public int bitLength(int packed)   { return dataTable[packed].bitLength(); }
+    public int min(int packed)         { return dataTable[packed].min(); }
+    public int max(int packed)         { return dataTable[packed].max(); }
+    public int minWarning(int packed)  { return dataTable[packed].minWarning(); }
+    public int maxWarning(int packed)  { return dataTable[packed].maxWarning(); }
+    public int minCritical(int packed) { return dataTable[packed].minCritical(); }
+    public int maxCritical(int packed) { return dataTable[packed].maxCritical(); }
+
     /* ============================== Public Lookup Functions ============================== */
 
     public Optional<Node> getNodeById(int nodeId) {
-        return Optional.ofNullable(nodesById.get(nodeId));
+        return Optional.ofNullable(node(nodeId));
     }
 
     public Optional<CANFrame> getFrame(int nodeId, int frameIndex) {
-        return Optional.ofNullable(framesById.get(new FrameKey(nodeId, frameIndex)));
+        return Optional.ofNullable(frame(nodeId, frameIndex));
     }
 
     public Optional<DataInfo> getDataInfo(int nodeId, int frameIndex, int dataIndex) {
-        return Optional.ofNullable(dataById.get(new DataKey(nodeId, frameIndex, dataIndex)));
+        return Optional.ofNullable(inRange(nodeId, frameIndex, dataIndex)
+                ? dataTable[pack(nodeId, frameIndex, dataIndex)] : null);
     }
 
     public Optional<DataInfo> getDataInfo(DataKey key) {
-        return Optional.ofNullable(dataById.get(key));
+        return getDataInfo(key.nodeId(), key.frameIndex(), key.dataIndex());
     }
 
     public Optional<Commitment> getCommitmentById(int nodeId, int frameIndex, int dataIndex) {
-        Node n = nodesById.get(nodeId);
-        CANFrame f = framesById.get(new FrameKey(nodeId, frameIndex));
-        DataInfo d = dataById.get(new DataKey(nodeId, frameIndex, dataIndex));
+        Node n = node(nodeId);
+        CANFrame f = frame(nodeId, frameIndex);
+        DataInfo d = getDataInfo(nodeId, frameIndex, dataIndex).orElse(null);
         return (n != null && f != null && d != null)
                 ? Optional.of(new Commitment(n, f, d))
                 : Optional.empty();
@@ -140,6 +241,14 @@ public class TelemetryLookup {
 
     /** Handy for chart titles, etc.: "<nodeName>.<dataName>" */
     public String titleFor(DataKey key) {
+        if (inRange(key.nodeId(), key.frameIndex(), key.dataIndex())) {
+            String t = titleTable[key.packed()];
+            if (t != null) return t;
+        }
+        return buildTitle(key);
+    }
+
+    private String buildTitle(DataKey key) {
         Node n = nodesById.get(key.nodeId());
         DataInfo d = dataById.get(key);
         String nodePart = (n != null) ? n.nodeName() : ("node" + key.nodeId());
@@ -147,15 +256,9 @@ public class TelemetryLookup {
         return nodePart + "." + dataPart;
     }
 
+    //name of sensor if this is a sensor, otherwise its special ID name
     public Optional<String> getNodeName(int nodeId){
-        //return name of sensor, if this is a sensors
-        Optional<Node> sensorIDOpt = getNodeById(nodeId);
-        if(sensorIDOpt.isPresent()){
-            return Optional.of(sensorIDOpt.get().nodeName);
-        }
-
-        //Otherwise, check special IDs:
-        return IntConstUtils.nameFromInt(Constants.specialIDs.class, nodeId);
+        return Optional.ofNullable(nodeName(nodeId));
     }
 
     /* ============================= Iteration ============================= */
@@ -0,0 +1,75 @@
+import java.io.IOException;
+
+// A byte stream that SerialBridge runs its SOF+checksum framing over. The framing doesn't care where the
+// bytes come from, so the same decoder can read the dongle, a network relay from the car, or a capture file.
+public interface Transport extends AutoCloseable {
+    String DEFAULT_SPEC = "serial:/dev/ttyACM0,baud=115200";
+
+    // Blocks until at least one byte arrives or the transport's own timeout passes.
+    // Returns bytes read, 0 on timeout, -1 once the stream has ended for good.
+    int read(byte[] dst, int off, int len) throws IOException;
+
+    // Bytes readable right now without blocking (0 if unknown).
+    int available() throws IOException;
+
+    void write(byte[] src, int off, int len) throws IOException;
+
+    default void flush() throws IOException {}
+
+    // Human readable source name, for logs and the stats panel
+    String describe();
+
+    @Override
+    void close();
+
+    /*
+     * Opens a transport from a command line spec, "scheme:target[,key=value...]":
+     *   serial:/dev/ttyACM0[,baud=115200][,mode=blocking|event|polling]
+     *   tcp:host:port          connect to a relay (reconnects if it drops)
+     *   tcp-listen:port        accept one relay connection at a time
+     *   udp:port               datagrams of raw frame bytes, replies go to the last sender
+     *   file:path              replay a raw capture as fast as it can be read
+     *   stdin  (or "-")        raw frame bytes piped into the dashboard
+     * Any scheme also takes batch=N, asking the dongle for batched frames (see SerialBridge.requestBatching),
+     * and queue=N,overflow=drop_newest|drop_oldest|block for the frame ring between reader and decoder.
+     */
+    static Transport open(String spec) throws IOException {
+        if (spec == null || spec.isBlank()) spec = DEFAULT_SPEC;
+        spec = spec.trim();
+        if (spec.equals("stdin") || spec.equals("-")) return new StreamTransport(System.in, "stdin");
+
+        int colon = spec.indexOf(':');
+        if (colon < 0) throw new IllegalArgumentException("Transport spec needs a scheme (serial:, tcp:, ...): " + spec);
+        String scheme = spec.substring(0, colon);
+        String target = spec.substring(colon + 1).split(",")[0];
+        java.util.Map<String, String> opts = options(spec);
+
+        return switch (scheme) {
+            case "serial" -> new SerialTransport(target,
+                    Integer.parseInt(opts.getOrDefault("baud", "115200")),
+                    SerialTransport.IngestMode.valueOf(opts.getOrDefault("mode", "blocking").toUpperCase()));
+            case "tcp" -> {
+                int c = target.lastIndexOf(':');
+                if (c < 0) throw new IllegalArgumentException("tcp needs host:port, got " + target);
+                yield TcpTransport.connect(target.substring(0, c), Integer.parseInt(target.substring(c + 1)));
+            }
+            case "tcp-listen" -> TcpTransport.listen(Integer.parseInt(target));
+            case "udp" -> new UdpTransport(Integer.parseInt(target));
+            case "file" -> new StreamTransport(new java.io.FileInputStream(target), "file:" + target);
+            default -> throw new IllegalArgumentException("Unknown transport scheme '" + scheme + "' in " + spec);
+        };
+    }
+
+    // The key=value options after the target, e.g. {baud=115200, batch=16}.
+    static java.util.Map<String, String> options(String spec) {
+        java.util.Map<String, String> opts = new java.util.HashMap<>();
+        if (spec == null) return opts;
+        String[] parts = spec.trim().split(",");
+        for (int i = 1; i < parts.length; i++) {
+            int eq = parts[i].indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Bad transport option '" + parts[i] + "' in " + spec);
+            opts.put(parts[i].substring(0, eq).trim(), parts[i].substring(eq + 1).trim());
+        }
+        return opts;
+    }
+}
@@ -0,0 +1,62 @@
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+
+// Frame bytes in UDP datagrams. A datagram may hold any number of frames (or a partial one); the
+// framing layer treats the datagrams as one byte stream. Outbound commands go to whoever sent last.
+public final class UdpTransport implements Transport {
+    private static final int READ_TIMEOUT_MS = 100;
+
+    private final DatagramSocket socket;
+    private final byte[] datagram = new byte[65507];    // largest UDP payload
+    private final DatagramPacket packet = new DatagramPacket(datagram, datagram.length);
+    private int pos = 0, limit = 0;                     // unread part of the last datagram
+    private volatile SocketAddress peer = null;
+
+    public UdpTransport(int port) throws SocketException {
+        socket = new DatagramSocket(port);
+        socket.setSoTimeout(READ_TIMEOUT_MS);
+        socket.setReceiveBufferSize(1 << 20);
+    }
+
+    @Override
+    public int read(byte[] dst, int off, int len) throws IOException {
+        if (pos == limit) {
+            try {
+                packet.setLength(datagram.length);
+                socket.receive(packet);
+            } catch (SocketTimeoutException e) {
+                return 0;
+            } catch (SocketException e) {
+                if (socket.isClosed()) return -1;
+                throw e;
+            }
+            peer = packet.getSocketAddress();
+            pos = 0;
+            limit = packet.getLength();
+        }
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(datagram, pos, dst, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public int available() { return limit - pos; }
+
+    @Override
+    public void write(byte[] src, int off, int len) throws IOException {
+        SocketAddress to = peer;
+        if (to == null) throw new IOException("no UDP peer yet on " + describe());
+        socket.send(new DatagramPacket(src, off, len, to));
+    }
+
+    @Override
+    public String describe() { return "udp:" + socket.getLocalPort(); }
+
+    @Override
+    public void close() { socket.close(); }
+}
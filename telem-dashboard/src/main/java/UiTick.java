@@ -0,0 +1,43 @@
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// The one EDT timer that moves decoded data into Swing. Decode threads never touch Swing components; they
+// write into buffers the registered tasks drain in one batch every tick: samples into the lock-free
+// SampleBuffer, alarm states into CanParser's per-signal slots, other notifications into NotificationPanel.later
+// (a bounded queue with a short lock). UI cost then follows the tick rate, not the bus rate.
+//
+// Rate comes from -Dtelem.ui.hz (default 30, 1-120).
+public final class UiTick {
+
+    public static final int HZ = Math.max(1, Math.min(120, Integer.getInteger("telem.ui.hz", 30)));
+
+    private static final List<Runnable> tasks = new CopyOnWriteArrayList<>();
+    private static final Timer timer = new Timer(1000 / HZ, e -> tick());
+
+    static {
+        timer.setCoalesce(true);    // a slow tick is followed by one catch-up, not a backlog
+        timer.start();
+    }
+
+    private UiTick() {}
+
+    // task runs on the EDT once per tick, in registration order
+    public static void add(Runnable task) {
+        tasks.add(task);
+    }
+
+    public static void remove(Runnable task) {
+        tasks.remove(task);
+    }
+
+    private static void tick() {
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                Log.error("ui", "UI tick task failed: %s", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.Hashtable;
+import javax.swing.JLabel;
+import javax.swing.JSlider;
+
+// How many points a chart keeps, on a log scale from 10 to 1,000,000 (a 30 minute run of a 500 Hz signal).
+// Long windows are drawn decimated to the chart's width (see RingXYDataset), so the top of the range stays fast.
+public class WindowSlider extends JSlider {
+
+    public static final int MIN_POINTS = 10, MAX_POINTS = 1_000_000;
+    private static final int STEPS_PER_DECADE = 20;
+    private static final int DECADES = 5;   // log10(MAX_POINTS / MIN_POINTS)
+
+    public WindowSlider(int points) {
+        super(HORIZONTAL, 0, DECADES * STEPS_PER_DECADE, position(points));
+        setMajorTickSpacing(STEPS_PER_DECADE);
+        setMinorTickSpacing(STEPS_PER_DECADE / 4);
+        setPaintTicks(true);
+        Hashtable<Integer, JLabel> labels = new Hashtable<>();
+        String[] names = {"10", "100", "1k", "10k", "100k", "1M"};
+        for (int d = 0; d <= DECADES; d++) labels.put(d * STEPS_PER_DECADE, new JLabel(names[d]));
+        setLabelTable(labels);
+        setPaintLabels(true);
+    }
+
+    public int getPoints() {
+        return (int) Math.round(MIN_POINTS * Math.pow(10, getValue() / (double) STEPS_PER_DECADE));
+    }
+
+    private static int position(int points) {
+        double p = Math.log10(Math.max(MIN_POINTS, Math.min(MAX_POINTS, points)) / (double) MIN_POINTS);
+        return (int) Math.round(p * STEPS_PER_DECADE);
+    }
+}